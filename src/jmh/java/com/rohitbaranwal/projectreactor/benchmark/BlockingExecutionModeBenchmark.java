@@ -0,0 +1,88 @@
+package com.rohitbaranwal.projectreactor.benchmark;
+
+import com.rohitbaranwal.projectreactor.config.BlockingExecutionMode;
+import com.rohitbaranwal.projectreactor.config.RevenueSettings;
+import com.rohitbaranwal.projectreactor.latency.SimulatedLatency;
+import com.rohitbaranwal.projectreactor.service.ReactiveRevenueService;
+import com.rohitbaranwal.projectreactor.service.RevenueService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Throughput of the blocking revenue adapter with 10k calls in flight, bounded elastic vs virtual threads.
+ * Score is blocking calls completed per second, the gc profiler adds the allocation rate.
+ * Virtual threads need Java 21+, on older JVMs VIRTUAL_THREADS falls back to bounded elastic
+ * and both rows should be equal. inFlightRevenueCalls_nonBlocking waits on a timer instead of a
+ * thread and does not depend on executionMode.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class BlockingExecutionModeBenchmark {
+
+  private static final int IN_FLIGHT_CALLS = 10_000;
+
+  @Param({"BOUNDED_ELASTIC", "VIRTUAL_THREADS"})
+  private BlockingExecutionMode executionMode;
+
+  //the real getRevenue sleeps 1 second, a shorter sleep keeps a bounded elastic run in seconds
+  @Param({"10"})
+  private int delayMs;
+
+  private RevenueService revenueService;
+
+  private ReactiveRevenueService reactiveRevenueService;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    var revenueSettings = RevenueSettings.builder()
+        .executionMode(executionMode)
+        .maxConcurrency(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE)
+        .queuedTaskCap(IN_FLIGHT_CALLS)
+        .build();
+    revenueService = new RevenueService(SimulatedLatency.fixed(Duration.ofMillis(delayMs)));
+    reactiveRevenueService = new ReactiveRevenueService(revenueService, revenueSettings);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() {
+    reactiveRevenueService.dispose();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(IN_FLIGHT_CALLS)
+  public Long inFlightRevenueCalls() {
+    return Flux.range(0, IN_FLIGHT_CALLS)
+        .flatMap(movieId -> reactiveRevenueService.retrieveRevenueMono(movieId), IN_FLIGHT_CALLS)
+        .count()
+        .block();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(IN_FLIGHT_CALLS)
+  public Long inFlightRevenueCalls_nonBlocking() {
+    return Flux.range(0, IN_FLIGHT_CALLS)
+        .flatMap(movieId -> revenueService.getRevenueMono((long) movieId), IN_FLIGHT_CALLS)
+        .count()
+        .block();
+  }
+}
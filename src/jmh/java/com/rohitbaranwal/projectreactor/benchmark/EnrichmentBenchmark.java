@@ -0,0 +1,84 @@
+package com.rohitbaranwal.projectreactor.benchmark;
+
+import com.rohitbaranwal.projectreactor.catalog.SyntheticCatalog;
+import com.rohitbaranwal.projectreactor.config.CatalogSettings;
+import com.rohitbaranwal.projectreactor.config.EnrichmentSettings;
+import com.rohitbaranwal.projectreactor.domain.Movie;
+import com.rohitbaranwal.projectreactor.enrichment.ReviewEnricher;
+import com.rohitbaranwal.projectreactor.service.MovieReactiveService;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+/**
+ * Throughput of the review enrichment stage over already assembled movies, sequential (all on
+ * the calling thread like the flatMap path) vs split over 1..N rails. One op enriches the whole
+ * catalog, the scaling shows when rails goes up to the number of cores of the machine.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnrichmentBenchmark {
+
+  @Param({"1", "2", "4", "8"})
+  private int rails;
+
+  @Param({"true", "false"})
+  private boolean ordered;
+
+  @Param({"50"})
+  private int reviewsPerMovie;
+
+  private List<Movie> movies;
+
+  private EnrichmentSettings enrichmentSettings;
+
+  private MovieReactiveService movieReactiveService;
+
+  private final ReviewEnricher reviewEnricher = new ReviewEnricher();
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    var catalog = new SyntheticCatalog(CatalogSettings.builder()
+        .movieCount(2000)
+        .minReviewsPerMovie(reviewsPerMovie)
+        .maxReviewsPerMovie(reviewsPerMovie)
+        .heavyTailRatio(0)
+        .build());
+    movies = catalog.movieInfoFlux()
+        .map(movieInfo -> new Movie(movieInfo, catalog.reviews(movieInfo.getMovieInfoId())))
+        .collectList()
+        .block();
+    enrichmentSettings = EnrichmentSettings.builder().rails(rails).ordered(ordered).build();
+    movieReactiveService = new MovieReactiveService(
+        new StubMovieInfoService(0, Duration.ZERO), new StubReviewService(0, Duration.ZERO));
+  }
+
+  @Benchmark
+  public Long parallel() {
+    return movieReactiveService.enrich(Flux.fromIterable(movies), enrichmentSettings)
+        .count()
+        .block();
+  }
+
+  @Benchmark
+  public Long sequential() {
+    return Flux.fromIterable(movies).map(reviewEnricher::enrich).count().block();
+  }
+}
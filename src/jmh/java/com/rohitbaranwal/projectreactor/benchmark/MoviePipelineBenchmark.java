@@ -0,0 +1,72 @@
+package com.rohitbaranwal.projectreactor.benchmark;
+
+import com.rohitbaranwal.projectreactor.config.TraceSettings;
+import com.rohitbaranwal.projectreactor.domain.Movie;
+import com.rohitbaranwal.projectreactor.service.MovieReactiveService;
+import com.rohitbaranwal.projectreactor.util.SignalTracing;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * getAllMovies and getMovieById against stub services, so the score is Reactor overhead and not
+ * sleeps. One op of getAllMovies assembles the whole catalog, divide by catalogSize for per movie.
+ * Run with the gc profiler (on by default in build.gradle) for allocation per op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoviePipelineBenchmark {
+
+  @Param({"10", "1000", "100000", "1000000"})
+  private int catalogSize;
+
+  @Param({"2"})
+  private int reviewsPerMovie;
+
+  //stub latency in ms, 0 measures the pipeline alone
+  @Param({"0"})
+  private int latencyMs;
+
+  private MovieReactiveService movieReactiveService;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    //logging every signal would be most of the measured time
+    SignalTracing.configure(TraceSettings.builder().enabled(false).build());
+
+    var latency = Duration.ofMillis(latencyMs);
+    movieReactiveService = new MovieReactiveService(
+        new StubMovieInfoService(catalogSize, latency),
+        new StubReviewService(reviewsPerMovie, latency));
+  }
+
+  @Benchmark
+  public Long getAllMovies() {
+    return movieReactiveService.getAllMovies().count().block();
+  }
+
+  @Benchmark
+  public Long getAllMovies_batched() {
+    return movieReactiveService.getAllMovies_batched().count().block();
+  }
+
+  @Benchmark
+  public Movie getMovieById() {
+    return movieReactiveService.getMovieById(catalogSize / 2).block();
+  }
+}
@@ -0,0 +1,61 @@
+package com.rohitbaranwal.projectreactor.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+/**
+ * The operator choices from FluxAndMonoGeneratorService without the random delays:
+ * flatMap vs concatMap vs flatMapSequential (mergeSequential per element) fanning every element
+ * out to a small inner flux, and Flux.zip vs zipWith combining two fluxes of the same size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OperatorBenchmark {
+
+  @Param({"10", "1000", "100000", "1000000"})
+  private int size;
+
+  //inner flux per element, like "ALEX" -> A, L, E, X
+  private Flux<Integer> inner(int i) {
+    return Flux.just(i, i + 1, i + 2, i + 3);
+  }
+
+  @Benchmark
+  public Long flatMap() {
+    return Flux.range(0, size).flatMap(this::inner).count().block();
+  }
+
+  @Benchmark
+  public Long concatMap() {
+    return Flux.range(0, size).concatMap(this::inner).count().block();
+  }
+
+  @Benchmark
+  public Long mergeSequential() {
+    return Flux.range(0, size).flatMapSequential(this::inner).count().block();
+  }
+
+  @Benchmark
+  public Long zip() {
+    return Flux.zip(Flux.range(0, size), Flux.range(0, size), Integer::sum).count().block();
+  }
+
+  @Benchmark
+  public Long zipWith() {
+    return Flux.range(0, size).zipWith(Flux.range(0, size), Integer::sum).count().block();
+  }
+}
@@ -0,0 +1,64 @@
+package com.rohitbaranwal.projectreactor.benchmark;
+
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.repository.ReviewColumns;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Retained heap of reviews as List<Review> vs ReviewColumns, run with ./gradlew reviewFootprint
+ * (-Dfootprint.reviews=10000000 by default). Every review has its own comment string so neither
+ * side gets to share them.
+ */
+public class ReviewFootprint {
+
+  public static void main(String[] args) throws InterruptedException {
+    var reviewCount = Integer.getInteger("footprint.reviews", 10_000_000);
+
+    var listBytes = retained(() -> {
+      List<Review> reviews = new ArrayList<>(reviewCount);
+      for (int i = 0; i < reviewCount; i++) {
+        reviews.add(review(i));
+      }
+      return reviews;
+    });
+    var columnsBytes = retained(() -> {
+      var reviewColumns = new ReviewColumns(reviewCount);
+      for (int i = 0; i < reviewCount; i++) {
+        reviewColumns.add(review(i));
+      }
+      return reviewColumns;
+    });
+
+    System.out.printf("%,d reviews%n", reviewCount);
+    System.out.printf("List<Review>   %,15d bytes  %6.1f bytes/review%n", listBytes,
+        (double) listBytes / reviewCount);
+    System.out.printf("ReviewColumns  %,15d bytes  %6.1f bytes/review%n", columnsBytes,
+        (double) columnsBytes / reviewCount);
+  }
+
+  //10 movies per 1000 reviews, like a catalog with 100 reviews per movie
+  private static Review review(int i) {
+    return new Review((long) i, (long) (i / 100), "Review comment " + i, (i % 91) / 10.0 + 1.0);
+  }
+
+  private static long retained(Supplier<Object> build)
+      throws InterruptedException {
+    var before = usedHeap();
+    var built = build.get();
+    var after = usedHeap();
+    Reference.reachabilityFence(built);
+    return after - before;
+  }
+
+  private static long usedHeap() throws InterruptedException {
+    for (int i = 0; i < 3; i++) {
+      System.gc();
+      Thread.sleep(200);
+    }
+    return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+  }
+}
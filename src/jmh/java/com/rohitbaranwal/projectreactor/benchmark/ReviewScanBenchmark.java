@@ -0,0 +1,67 @@
+package com.rohitbaranwal.projectreactor.benchmark;
+
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.repository.ReviewColumns;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Average rating of one movie from List<Review> (a Review and a Double per element) vs the rating
+ * column of ReviewColumns. The footprint of the two is compared by ReviewFootprint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ReviewScanBenchmark {
+
+  private static final long MOVIE_ID = 1L;
+
+  @Param({"1000", "100000", "1000000"})
+  private int reviewsPerMovie;
+
+  private List<Review> reviewList;
+
+  private ReviewColumns reviewColumns;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    reviewList = new ArrayList<>(reviewsPerMovie);
+    reviewColumns = new ReviewColumns(reviewsPerMovie);
+    for (int i = 0; i < reviewsPerMovie; i++) {
+      var review = new Review((long) i, MOVIE_ID, "Review comment " + i, (i % 91) / 10.0 + 1.0);
+      reviewList.add(review);
+      reviewColumns.add(review);
+    }
+  }
+
+  @Benchmark
+  public double averageRating_list() {
+    return reviewList.stream()
+        .mapToDouble(Review::getRating)
+        .average()
+        .orElse(0.0);
+  }
+
+  @Benchmark
+  public double averageRating_columns() {
+    return reviewColumns.ratings(MOVIE_ID)
+        .average()
+        .orElse(0.0);
+  }
+}
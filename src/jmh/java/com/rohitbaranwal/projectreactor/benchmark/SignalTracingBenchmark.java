@@ -0,0 +1,65 @@
+package com.rohitbaranwal.projectreactor.benchmark;
+
+import static com.rohitbaranwal.projectreactor.util.SignalTracing.traceFlux;
+
+import ch.qos.logback.classic.Logger;
+import com.rohitbaranwal.projectreactor.config.TraceSettings;
+import com.rohitbaranwal.projectreactor.util.SignalTracing;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
+
+/**
+ * Cost of SignalTracing on a small pipeline.
+ * NO_OPERATOR is the pipeline without tracing, TRACING_OFF should match it since an untraced
+ * pipeline gets no operator. TRACING_ON adds the log operator with the trace logger turned off,
+ * so it shows the operator cost without the console output.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SignalTracingBenchmark {
+
+  public enum TraceMode { NO_OPERATOR, TRACING_OFF, TRACING_ON }
+
+  @Param({"NO_OPERATOR", "TRACING_OFF", "TRACING_ON"})
+  private TraceMode traceMode;
+
+  @Param({"100"})
+  private int elements;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    ((Logger) LoggerFactory.getLogger("trace")).setLevel(ch.qos.logback.classic.Level.OFF);
+    SignalTracing.configure(TraceSettings.builder()
+        .enabled(traceMode == TraceMode.TRACING_ON)
+        .build());
+  }
+
+  @Benchmark
+  public void namesPipeline(Blackhole blackhole) {
+    Flux<String> flux = Flux.range(0, elements)
+        .map(i -> "name-" + i)
+        .filter(name -> name.length() > 5);
+    if (traceMode != TraceMode.NO_OPERATOR) {
+      flux = flux.transform(traceFlux("namesPipeline"));
+    }
+    flux.subscribe(blackhole::consume);
+  }
+}
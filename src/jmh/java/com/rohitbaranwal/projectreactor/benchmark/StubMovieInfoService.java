@@ -0,0 +1,43 @@
+package com.rohitbaranwal.projectreactor.benchmark;
+
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.service.MovieInfoService;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * MovieInfoService with a pre-built catalog of catalogSize movies and no sleep.
+ * latency is applied with a timer (Mono.delay) and not a blocked thread, ZERO turns it off.
+ */
+public class StubMovieInfoService extends MovieInfoService {
+
+  private final List<MovieInfo> catalog;
+
+  private final Duration latency;
+
+  public StubMovieInfoService(int catalogSize, Duration latency) {
+    this.latency = latency;
+    this.catalog = new ArrayList<>(catalogSize);
+    var castList = List.of("Christian Bale", "Michael Cane");
+    var releaseDate = LocalDate.parse("2005-06-15");
+    for (long movieId = 0; movieId < catalogSize; movieId++) {
+      catalog.add(new MovieInfo(movieId, "Movie " + movieId, 2005, castList, releaseDate));
+    }
+  }
+
+  @Override
+  public Flux<MovieInfo> retrieveMoviesFlux() {
+    var movieInfoFlux = Flux.fromIterable(catalog);
+    return latency.isZero() ? movieInfoFlux : movieInfoFlux.delaySubscription(latency);
+  }
+
+  @Override
+  public Mono<MovieInfo> retrieveMovieInfoMonoUsingId(long movieId) {
+    var movieInfo = catalog.get((int) (movieId % catalog.size()));
+    return latency.isZero() ? Mono.just(movieInfo) : Mono.just(movieInfo).delayElement(latency);
+  }
+}
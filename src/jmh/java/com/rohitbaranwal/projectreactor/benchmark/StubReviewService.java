@@ -0,0 +1,48 @@
+package com.rohitbaranwal.projectreactor.benchmark;
+
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.service.ReviewService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import reactor.core.publisher.Flux;
+
+/**
+ * ReviewService returning reviewsPerMovie reviews for the requested movie, latency works
+ * the same way as in StubMovieInfoService and applies once per call, batched or not.
+ */
+public class StubReviewService extends ReviewService {
+
+  private final int reviewsPerMovie;
+
+  private final Duration latency;
+
+  public StubReviewService(int reviewsPerMovie, Duration latency) {
+    this.reviewsPerMovie = reviewsPerMovie;
+    this.latency = latency;
+  }
+
+  @Override
+  public List<Review> retrieveReviews(long movieInfoId) {
+    var reviews = new ArrayList<Review>(reviewsPerMovie);
+    for (long reviewId = 0; reviewId < reviewsPerMovie; reviewId++) {
+      reviews.add(new Review(reviewId, movieInfoId, "Awesome Movie", 8.9));
+    }
+    return reviews;
+  }
+
+  @Override
+  public Flux<Review> retrieveReviewsFlux(long movieInfoId) {
+    return delayed(Flux.defer(() -> Flux.fromIterable(retrieveReviews(movieInfoId))));
+  }
+
+  @Override
+  public Flux<Review> retrieveReviewsFlux(Collection<Long> movieInfoIds) {
+    return delayed(super.retrieveReviewsFlux(movieInfoIds));
+  }
+
+  private Flux<Review> delayed(Flux<Review> reviewFlux) {
+    return latency.isZero() ? reviewFlux : reviewFlux.delaySubscription(latency);
+  }
+}
@@ -0,0 +1,68 @@
+package com.rohitbaranwal.projectreactor.benchmark;
+
+import com.rohitbaranwal.projectreactor.util.TextOperators;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+/**
+ * Character fan-out of a review comment: split("") as convertStringToChar used to do it vs the
+ * TextOperators. Look at gc.alloc.rate.norm (bytes/op) next to the time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextOperatorBenchmark {
+
+  @Param({"Worth watching twice, great cast and an excellent soundtrack",
+      "Great 🎬 film, loved it 😀"})
+  private String comment;
+
+  @Benchmark
+  public Long split() {
+    return Flux.fromArray(comment.split("")).count().block();
+  }
+
+  @Benchmark
+  public List<String> splitList() {
+    return List.of(comment.split(""));
+  }
+
+  @Benchmark
+  public Long characters() {
+    return TextOperators.characters(comment).count().block();
+  }
+
+  @Benchmark
+  public List<String> characterList() {
+    return TextOperators.characterList(comment);
+  }
+
+  @Benchmark
+  public Long codePoints() {
+    return TextOperators.codePoints(comment).count().block();
+  }
+
+  @Benchmark
+  public Long charSlices() {
+    return TextOperators.charSlices(comment).count().block();
+  }
+
+  @Benchmark
+  public Long tokens() {
+    return TextOperators.tokens(comment).count().block();
+  }
+}
@@ -0,0 +1,68 @@
+package com.rohitbaranwal.projectreactor.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.rohitbaranwal.projectreactor.config.MovieCacheSettings;
+import com.rohitbaranwal.projectreactor.domain.Movie;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.function.LongFunction;
+import reactor.core.publisher.Mono;
+
+/**
+ * Async loading cache of assembled Movie values keyed by movieId.
+ * Backed by Caffeine, which evicts with W-TinyLFU once maximumSize is reached.
+ * The loader is usually MovieReactiveService::getMovieById, a hit never subscribes to it.
+ * bindTo publishes hits, misses, evictions and size as the cache.* meters tagged cache=movies.
+ */
+public class MovieCache implements MeterBinder {
+
+  private final AsyncLoadingCache<Long, Movie> cache;
+
+  public MovieCache(LongFunction<Mono<Movie>> movieLoader) {
+    this(movieLoader, MovieCacheSettings.defaults());
+  }
+
+  public MovieCache(LongFunction<Mono<Movie>> movieLoader, MovieCacheSettings cacheSettings) {
+    var cacheBuilder = Caffeine.newBuilder()
+        .maximumSize(cacheSettings.getMaximumSize())
+        .expireAfterWrite(cacheSettings.getTtl())
+        .recordStats();
+    if (cacheSettings.getRefreshAfter() != null) {
+      cacheBuilder.refreshAfterWrite(cacheSettings.getRefreshAfter());
+    }
+    //an empty Mono completes the future with null, Caffeine does not store it
+    this.cache = cacheBuilder.buildAsync(
+        (movieId, executor) -> movieLoader.apply(movieId).toFuture());
+  }
+
+  public Mono<Movie> getMovieById(long movieId) {
+    //suppressCancel: one subscriber cancelling must not cancel the load other subscribers wait for
+    return Mono.fromFuture(() -> cache.get(movieId), true);
+  }
+
+  public void invalidate(long movieId) {
+    cache.synchronous().invalidate(movieId);
+  }
+
+  //hitCount, missCount, evictionCount, loadFailureCount ...
+  public CacheStats stats() {
+    return cache.synchronous().stats();
+  }
+
+  public long size() {
+    return cache.synchronous().estimatedSize();
+  }
+
+  //Caffeine evicts on a background executor, this runs the pending eviction right away
+  void cleanUp() {
+    cache.synchronous().cleanUp();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    CaffeineCacheMetrics.monitor(registry, cache, "movies");
+  }
+}
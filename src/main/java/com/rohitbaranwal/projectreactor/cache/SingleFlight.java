@@ -0,0 +1,84 @@
+package com.rohitbaranwal.projectreactor.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In-flight de-duplication of calls by key.
+ * While a call for a key is running, every other request for that key subscribes to the same
+ * pending Mono/Flux and gets its result or error. The entry is removed as soon as the call
+ * terminates (or every subscriber cancelled), so the next request always runs a fresh call.
+ */
+public class SingleFlight<K, V> {
+
+  private final Map<K, Mono<V>> inFlightMonos = new ConcurrentHashMap<>();
+
+  private final Map<K, Flux<V>> inFlightFluxes = new ConcurrentHashMap<>();
+
+  private final LongAdder coalescedCalls = new LongAdder();
+
+  public Mono<V> execute(K key, Supplier<? extends Mono<V>> call) {
+    return Mono.defer(() -> {
+      var created = new boolean[1];
+      Mono<V> flight = inFlightMonos.computeIfAbsent(key, k -> {
+        created[0] = true;
+        return newMonoFlight(k, call);
+      });
+      if (!created[0]) {
+        coalescedCalls.increment();
+      }
+      return flight;
+    });
+  }
+
+  public Flux<V> executeMany(K key, Supplier<? extends Flux<V>> call) {
+    return Flux.defer(() -> {
+      var created = new boolean[1];
+      Flux<V> flight = inFlightFluxes.computeIfAbsent(key, k -> {
+        created[0] = true;
+        return newFluxFlight(k, call);
+      });
+      if (!created[0]) {
+        coalescedCalls.increment();
+      }
+      return flight;
+    });
+  }
+
+  private Mono<V> newMonoFlight(K key, Supplier<? extends Mono<V>> call) {
+    var flight = new AtomicReference<Mono<V>>();
+    //doOnTerminate runs before subscribers see the result, so nobody can join a finished call
+    Mono<V> shared = Mono.defer(call)
+        .doOnTerminate(() -> inFlightMonos.remove(key, flight.get()))
+        .doOnCancel(() -> inFlightMonos.remove(key, flight.get()))
+        .share();
+    flight.set(shared);
+    return shared;
+  }
+
+  private Flux<V> newFluxFlight(K key, Supplier<? extends Flux<V>> call) {
+    var flight = new AtomicReference<Flux<V>>();
+    //replay so a subscriber joining halfway still gets the elements emitted before it joined
+    Flux<V> shared = Flux.defer(call)
+        .doOnTerminate(() -> inFlightFluxes.remove(key, flight.get()))
+        .doOnCancel(() -> inFlightFluxes.remove(key, flight.get()))
+        .replay()
+        .refCount();
+    flight.set(shared);
+    return shared;
+  }
+
+  //number of requests that were served by joining a call already in flight
+  public long coalescedCalls() {
+    return coalescedCalls.sum();
+  }
+
+  public int inFlightCount() {
+    return inFlightMonos.size() + inFlightFluxes.size();
+  }
+}
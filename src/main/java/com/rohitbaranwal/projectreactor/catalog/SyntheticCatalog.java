@@ -0,0 +1,113 @@
+package com.rohitbaranwal.projectreactor.catalog;
+
+import com.rohitbaranwal.projectreactor.config.CatalogSettings;
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import reactor.core.publisher.Flux;
+
+/**
+ * Deterministic, seeded movie catalog which is never held in memory.
+ * Every movie and every review is a pure function of (seed, movieInfoId, review index), so a
+ * catalog of millions of movies costs nothing until it is read and a lookup needs no scan.
+ * Movie ids run from FIRST_MOVIE_ID to FIRST_MOVIE_ID + movieCount - 1.
+ */
+public class SyntheticCatalog {
+
+  public static final long FIRST_MOVIE_ID = 1L;
+
+  private static final String[] FIRST_NAMES = {"Christian", "Michael", "Tom", "Anne", "Gary",
+      "Morgan", "Cillian", "Marion", "Joseph", "Heath", "Maggie", "Liam", "Scarlett", "Emily",
+      "Denzel", "Viola", "Keanu", "Carrie", "Hugh", "Zoe"};
+
+  private static final String[] LAST_NAMES = {"Bale", "Cane", "Hardy", "Hathaway", "Oldman",
+      "Freeman", "Murphy", "Cotillard", "Gordon", "Ledger", "Gyllenhaal", "Neeson", "Johansson",
+      "Blunt", "Washington", "Davis", "Reeves", "Moss", "Jackman", "Saldana"};
+
+  private static final String[] TITLE_WORDS = {"Dark", "Knight", "Rises", "Begins", "Silent",
+      "Harbor", "Last", "Empire", "Iron", "Storm", "Night", "City", "Shadow", "Return", "Lost",
+      "Kingdom", "Red", "River", "Final", "Hour"};
+
+  private static final String[] COMMENTS = {"Awesome Movie", "Excellent Movie", "Good Movie",
+      "Average Movie", "Bad Movie", "Worth watching twice", "Too long", "Great cast"};
+
+  private final CatalogSettings settings;
+
+  public SyntheticCatalog(CatalogSettings settings) {
+    this.settings = settings;
+  }
+
+  public int movieCount() {
+    return settings.getMovieCount();
+  }
+
+  public boolean contains(long movieInfoId) {
+    return movieInfoId >= FIRST_MOVIE_ID && movieInfoId < FIRST_MOVIE_ID + movieCount();
+  }
+
+  //ids outside the catalog are generated too, lookups behave like the hard-coded services
+  public MovieInfo movieInfo(long movieInfoId) {
+    var random = movieRandom(movieInfoId);
+    var name = TITLE_WORDS[random.nextInt(TITLE_WORDS.length)] + " "
+        + TITLE_WORDS[random.nextInt(TITLE_WORDS.length)];
+    var releaseDate = LocalDate.ofYearDay(1950 + random.nextInt(75), 1 + random.nextInt(365));
+
+    var cast = new ArrayList<String>(settings.getCastSize());
+    for (int i = 0; i < settings.getCastSize(); i++) {
+      cast.add(FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+          + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+    }
+    return new MovieInfo(movieInfoId, name, releaseDate.getYear(), cast, releaseDate);
+  }
+
+  public Flux<MovieInfo> movieInfoFlux() {
+    return Flux.range(0, movieCount())
+        .map(i -> movieInfo(FIRST_MOVIE_ID + i));
+  }
+
+  public int reviewCount(long movieInfoId) {
+    //own stream so the count does not depend on how the movieInfo draws are made
+    var random = new SplittableRandom(mix(settings.getSeed() ^ mix(~movieInfoId)));
+    if (random.nextDouble() < settings.getHeavyTailRatio()) {
+      return settings.getHeavyTailReviews();
+    }
+    return random.nextInt(settings.getMinReviewsPerMovie(), settings.getMaxReviewsPerMovie() + 1);
+  }
+
+  //reviewId is the movieInfoId in the high and the index in the low 32 bits, unique catalog wide
+  public Review review(long movieInfoId, int index) {
+    var random = new SplittableRandom(mix(mix(settings.getSeed() ^ movieInfoId) + index));
+    var rating = (10 + random.nextInt(91)) / 10.0;
+    return new Review(movieInfoId << 32 | index, movieInfoId,
+        COMMENTS[random.nextInt(COMMENTS.length)], rating);
+  }
+
+  //generated on demand, a heavy-tailed movie streams its reviews without building a list
+  public Flux<Review> reviewFlux(long movieInfoId) {
+    return Flux.range(0, reviewCount(movieInfoId))
+        .map(index -> review(movieInfoId, index));
+  }
+
+  public List<Review> reviews(long movieInfoId) {
+    var reviewCount = reviewCount(movieInfoId);
+    var reviews = new ArrayList<Review>(reviewCount);
+    for (int index = 0; index < reviewCount; index++) {
+      reviews.add(review(movieInfoId, index));
+    }
+    return reviews;
+  }
+
+  private SplittableRandom movieRandom(long movieInfoId) {
+    return new SplittableRandom(mix(settings.getSeed() ^ mix(movieInfoId)));
+  }
+
+  //SplitMix64 finalizer, spreads neighbouring ids over the whole seed space
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+}
@@ -0,0 +1,93 @@
+package com.rohitbaranwal.projectreactor.changes;
+
+import com.rohitbaranwal.projectreactor.config.MovieChangeStreamSettings;
+import com.rohitbaranwal.projectreactor.domain.Movie;
+import com.rohitbaranwal.projectreactor.domain.MovieDelta;
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.domain.Revenue;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.time.Duration;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+/**
+ * Hot stream of MovieDeltas. MovieInfoRepository, ReviewColumns, MappedReviewStore and
+ * RevenueService report every save, review and revenue update here once they are given the
+ * stream, and subscribers apply the delta to their own MovieView instead of running the whole
+ * getAllMovies assembly again.
+ * Every subscriber gets all deltas from the moment it subscribes, a slow one buffers up to
+ * bufferSize of them and then fails with an overflow error.
+ */
+public class MovieChangeStream {
+
+  private static final Sinks.EmitFailureHandler RETRY_CONCURRENT_EMIT =
+      Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+  private final Sinks.Many<MovieDelta> sink = Sinks.many().multicast().directBestEffort();
+
+  private final MovieChangeStreamSettings settings;
+
+  public MovieChangeStream() {
+    this(MovieChangeStreamSettings.defaults());
+  }
+
+  public MovieChangeStream(MovieChangeStreamSettings settings) {
+    this.settings = settings;
+  }
+
+  public void reviewAdded(Review review) {
+    emit(MovieDelta.reviewAdded(review));
+  }
+
+  public void movieInfoEdited(MovieInfo movieInfo) {
+    emit(MovieDelta.movieInfoEdited(movieInfo));
+  }
+
+  public void revenueUpdated(Revenue revenue) {
+    emit(MovieDelta.revenueUpdated(revenue));
+  }
+
+  public void emit(MovieDelta delta) {
+    sink.emitNext(delta, RETRY_CONCURRENT_EMIT);
+  }
+
+  public Flux<MovieDelta> deltas() {
+    //each subscriber always has demand towards the sink, so directBestEffort never drops, the
+    //buffer errors once it is full
+    return sink.asFlux().onBackpressureBuffer(settings.getBufferSize());
+  }
+
+  public int subscriberCount() {
+    return sink.currentSubscriberCount();
+  }
+
+  //every Movie of the snapshot and then the Movie changed by each delta, kept in a MovieView of
+  //this subscriber. The deltas are subscribed to before the snapshot, the ones that arrive
+  //while it loads wait in a queue and are applied once it is loaded. When the queue is full the
+  //flux fails right away, also while the snapshot is still loading
+  public Flux<Movie> materialize(Flux<Movie> snapshot) {
+    return Flux.defer(() -> {
+      var movieView = new MovieView();
+      Sinks.Many<MovieDelta> pending = Sinks.many().unicast()
+          .onBackpressureBuffer(Queues.<MovieDelta>get(settings.getBufferSize()).get());
+      Sinks.Empty<Void> overflow = Sinks.empty();
+      Disposable changes = sink.asFlux().subscribe(delta -> {
+        var result = pending.tryEmitNext(delta);
+        //while the snapshot loads the queue has no subscriber yet, a full queue is reported as
+        //FAIL_ZERO_SUBSCRIBER then
+        if (result == Sinks.EmitResult.FAIL_OVERFLOW
+            || result == Sinks.EmitResult.FAIL_ZERO_SUBSCRIBER) {
+          overflow.tryEmitError(Exceptions.failWithOverflow(
+              "More than " + settings.getBufferSize() + " movie deltas pending"));
+        }
+      }, pending::tryEmitError);
+      return Flux.concat(snapshot.map(movieView::load),
+              pending.asFlux().mapNotNull(movieView::apply))
+          .takeUntilOther(overflow.asMono())
+          .doFinally(signalType -> changes.dispose());
+    });
+  }
+}
@@ -0,0 +1,90 @@
+package com.rohitbaranwal.projectreactor.changes;
+
+import com.rohitbaranwal.projectreactor.domain.Movie;
+import com.rohitbaranwal.projectreactor.domain.MovieDelta;
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.domain.Revenue;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Materialized Movies of one subscriber, kept up to date from MovieDeltas.
+ * Applying a delta is a map lookup and a field update, nothing is re-assembled. The Movies
+ * are owned by the view and changed in place, so it is meant for a single thread.
+ */
+public class MovieView {
+
+  private final Map<Long, Movie> movies = new HashMap<>();
+
+  //review ids per movie, only built once a review is added to it, so a review that was already
+  //in the snapshot is not added twice
+  private final Map<Long, Set<Long>> reviewIds = new HashMap<>();
+
+  public Movie load(Movie movie) {
+    var movieInfoId = movie.getMovieInfo().getMovieInfoId();
+    //the list from ReviewService can be immutable, deltas add to it
+    movie.setReviewList(movie.getReviewList() == null
+        ? new ArrayList<>()
+        : new ArrayList<>(movie.getReviewList()));
+    movies.put(movieInfoId, movie);
+    reviewIds.remove(movieInfoId);
+    return movie;
+  }
+
+  //the changed Movie, or null for a review or revenue of a movie the view does not have
+  public Movie apply(MovieDelta delta) {
+    var movieInfoId = delta.getMovieInfoId();
+    var movie = movies.get(movieInfoId);
+    switch (delta.getField()) {
+      case MOVIE_INFO -> {
+        if (movie == null) {
+          return load(new Movie((MovieInfo) delta.getValue(), new ArrayList<>()));
+        }
+        movie.setMovieInfo((MovieInfo) delta.getValue());
+      }
+      case REVIEW_ADDED -> {
+        if (movie == null) {
+          return null;
+        }
+        var review = (Review) delta.getValue();
+        if (review.getReviewId() != null
+            && !reviewIds(movieInfoId, movie).add(review.getReviewId())) {
+          return movie;
+        }
+        movie.getReviewList().add(review);
+      }
+      case REVENUE -> {
+        if (movie == null) {
+          return null;
+        }
+        movie.setRevenue((Revenue) delta.getValue());
+      }
+    }
+    return movie;
+  }
+
+  public Movie get(long movieInfoId) {
+    return movies.get(movieInfoId);
+  }
+
+  public Collection<Movie> movies() {
+    return movies.values();
+  }
+
+  public int size() {
+    return movies.size();
+  }
+
+  private Set<Long> reviewIds(long movieInfoId, Movie movie) {
+    return reviewIds.computeIfAbsent(movieInfoId, id -> {
+      var ids = new HashSet<Long>();
+      movie.getReviewList().forEach(review -> ids.add(review.getReviewId()));
+      return ids;
+    });
+  }
+}
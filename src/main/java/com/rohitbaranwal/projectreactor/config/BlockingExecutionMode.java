@@ -0,0 +1,13 @@
+package com.rohitbaranwal.projectreactor.config;
+
+/**
+ * Where the blocking service calls (movieList, retrieveMovieUsingId, getRevenue) are run.
+ */
+public enum BlockingExecutionMode {
+
+  //Schedulers bounded elastic pool, capped at a fixed number of platform threads
+  BOUNDED_ELASTIC,
+
+  //one virtual thread per call, falls back to BOUNDED_ELASTIC when the JVM has no virtual threads
+  VIRTUAL_THREADS
+}
@@ -0,0 +1,38 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for the shared CatalogFeed.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class CatalogFeedSettings {
+
+  //how many of the most recent movies a late subscriber gets replayed, catalog and updates alike,
+  //smaller than the catalog means late subscribers miss its first movies
+  @Builder.Default
+  private int replaySize = 1000;
+
+  //movies older than this are not replayed, null keeps them until replaySize pushes them out
+  @Builder.Default
+  private Duration replayMaxAge = null;
+
+  //movies buffered for one subscriber that is behind, the oldest are dropped when it is full
+  @Builder.Default
+  private int subscriberBufferSize = 256;
+
+  //how long the feed stays connected after the last subscriber left
+  @Builder.Default
+  private Duration gracePeriod = Duration.ZERO;
+
+  public static CatalogFeedSettings defaults() {
+    return CatalogFeedSettings.builder().build();
+  }
+}
@@ -0,0 +1,68 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import java.util.function.Function;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for SyntheticCatalog.
+ * A movie gets between minReviewsPerMovie and maxReviewsPerMovie reviews, except heavyTailRatio
+ * of the movies which get heavyTailReviews each. The same seed always generates the same catalog.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class CatalogSettings {
+
+  @Builder.Default
+  private long seed = 42L;
+
+  @Builder.Default
+  private int movieCount = 1000;
+
+  @Builder.Default
+  private int castSize = 4;
+
+  @Builder.Default
+  private int minReviewsPerMovie = 0;
+
+  @Builder.Default
+  private int maxReviewsPerMovie = 20;
+
+  //0.001 makes one movie in a thousand a blockbuster
+  @Builder.Default
+  private double heavyTailRatio = 0.001;
+
+  @Builder.Default
+  private int heavyTailReviews = 100_000;
+
+  public static CatalogSettings defaults() {
+    return CatalogSettings.builder().build();
+  }
+
+  //catalog.* values from any property lookup, e.g. System::getProperty or environment::getProperty
+  public static CatalogSettings fromProperties(Function<String, String> property) {
+    var defaults = defaults();
+    return CatalogSettings.builder()
+        .seed(Long.parseLong(get(property, "catalog.seed", defaults.seed)))
+        .movieCount(Integer.parseInt(get(property, "catalog.movies", defaults.movieCount)))
+        .castSize(Integer.parseInt(get(property, "catalog.castSize", defaults.castSize)))
+        .minReviewsPerMovie(
+            Integer.parseInt(get(property, "catalog.minReviews", defaults.minReviewsPerMovie)))
+        .maxReviewsPerMovie(
+            Integer.parseInt(get(property, "catalog.maxReviews", defaults.maxReviewsPerMovie)))
+        .heavyTailRatio(
+            Double.parseDouble(get(property, "catalog.heavyTailRatio", defaults.heavyTailRatio)))
+        .heavyTailReviews(
+            Integer.parseInt(get(property, "catalog.heavyTailReviews", defaults.heavyTailReviews)))
+        .build();
+  }
+
+  private static String get(Function<String, String> property, String key, Object defaultValue) {
+    var value = property.apply(key);
+    return value == null ? String.valueOf(defaultValue) : value;
+  }
+}
@@ -0,0 +1,47 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for the circuit breaker and bulkhead around ReviewService.
+ * The breaker opens when failureRateThreshold percent of the last slidingWindowSize calls failed
+ * (and at least minimumNumberOfCalls were recorded), stays open for waitDurationInOpenState and then
+ * lets permittedCallsInHalfOpenState trial calls through before closing again.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class CircuitBreakerSettings {
+
+  @Builder.Default
+  private float failureRateThreshold = 50;
+
+  @Builder.Default
+  private int slidingWindowSize = 20;
+
+  @Builder.Default
+  private int minimumNumberOfCalls = 10;
+
+  @Builder.Default
+  private Duration waitDurationInOpenState = Duration.ofSeconds(5);
+
+  @Builder.Default
+  private int permittedCallsInHalfOpenState = 3;
+
+  //bulkhead - review calls allowed at the same time, extra calls are rejected straight away
+  @Builder.Default
+  private int maxConcurrentCalls = 25;
+
+  //true - rejected calls get an empty review list, false - they fail with the rejection exception
+  @Builder.Default
+  private boolean fallbackToEmpty = true;
+
+  public static CircuitBreakerSettings defaults() {
+    return CircuitBreakerSettings.builder().build();
+  }
+}
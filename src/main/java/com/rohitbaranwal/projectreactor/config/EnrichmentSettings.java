@@ -0,0 +1,32 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for the parallel review enrichment stage of MovieReactiveService.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class EnrichmentSettings {
+
+  //movies are split round robin over this many rails, each runs on a parallel scheduler worker
+  @Builder.Default
+  private int rails = Runtime.getRuntime().availableProcessors();
+
+  //true keeps the catalog order, false emits each movie as soon as its rail is done with it
+  @Builder.Default
+  private boolean ordered = true;
+
+  //movies queued per rail
+  @Builder.Default
+  private int prefetch = 32;
+
+  public static EnrichmentSettings defaults() {
+    return EnrichmentSettings.builder().build();
+  }
+}
@@ -0,0 +1,42 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for hedged requests.
+ * A second attempt is sent when the first has not answered after hedgeDelay, or after the observed
+ * latency percentile when percentile is set and enough samples have been recorded.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class HedgeSettings {
+
+  @Builder.Default
+  private Duration hedgeDelay = Duration.ofMillis(50);
+
+  //e.g. 0.95 hedges after the p95 latency of recent calls, null always uses hedgeDelay
+  @Builder.Default
+  private Double percentile = null;
+
+  //the percentile based delay is never shorter than this
+  @Builder.Default
+  private Duration minHedgeDelay = Duration.ofMillis(5);
+
+  //hedges allowed as a share of all calls, 0.1 means at most 10% extra load
+  @Builder.Default
+  private double maxHedgeRatio = 0.1;
+
+  //number of recent latencies kept for the percentile
+  @Builder.Default
+  private int latencySampleSize = 1_000;
+
+  public static HedgeSettings defaults() {
+    return HedgeSettings.builder().build();
+  }
+}
@@ -0,0 +1,33 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for MovieCache.
+ * Entries are dropped after ttl, an entry read after refreshAfter (and before ttl) is reloaded in
+ * the background while the old value is still served, so hot titles never wait for a reload.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class MovieCacheSettings {
+
+  @Builder.Default
+  private long maximumSize = 1_000;
+
+  @Builder.Default
+  private Duration ttl = Duration.ofMinutes(5);
+
+  //must be shorter than ttl, null turns refresh-ahead off
+  @Builder.Default
+  private Duration refreshAfter = Duration.ofMinutes(4);
+
+  public static MovieCacheSettings defaults() {
+    return MovieCacheSettings.builder().build();
+  }
+}
@@ -0,0 +1,26 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for MovieChangeStream.
+ * A subscriber that falls more than bufferSize deltas behind fails with an overflow error, a
+ * dropped delta would leave its MovieView silently wrong, it has to materialize again instead.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class MovieChangeStreamSettings {
+
+  //deltas buffered per subscriber, also while getAllMovies_changes loads its snapshot
+  @Builder.Default
+  private int bufferSize = 10_000;
+
+  public static MovieChangeStreamSettings defaults() {
+    return MovieChangeStreamSettings.builder().build();
+  }
+}
@@ -0,0 +1,121 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import com.rohitbaranwal.projectreactor.cache.MovieCache;
+import com.rohitbaranwal.projectreactor.catalog.SyntheticCatalog;
+import com.rohitbaranwal.projectreactor.changes.MovieChangeStream;
+import com.rohitbaranwal.projectreactor.feed.CatalogFeed;
+import com.rohitbaranwal.projectreactor.latency.LatencyDistribution;
+import com.rohitbaranwal.projectreactor.latency.SimulatedLatency;
+import com.rohitbaranwal.projectreactor.resilience.RetryBudget;
+import com.rohitbaranwal.projectreactor.service.MovieInfoService;
+import com.rohitbaranwal.projectreactor.service.MovieReactiveService;
+import com.rohitbaranwal.projectreactor.service.ReactiveRevenueService;
+import com.rohitbaranwal.projectreactor.service.RevenueService;
+import com.rohitbaranwal.projectreactor.service.ReviewService;
+import com.rohitbaranwal.projectreactor.service.SyntheticMovieInfoService;
+import com.rohitbaranwal.projectreactor.service.SyntheticReviewService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * Spring beans for the movie services, MovieReactiveService reports its pipeline metrics
+ * to the application MeterRegistry which is exposed on /actuator/metrics.
+ * catalog.source=synthetic swaps the hard-coded movies for a SyntheticCatalog built from the
+ * catalog.* properties, catalog.latency adds simulated latency to every catalog call.
+ * CatalogFeed shares one getAllMovies load between all of its subscribers.
+ * MovieChangeStream is shared by the writers, the MovieInfoRepository and the RevenueService,
+ * and by getAllMovies_changes, so every save or revenue update reaches the materialized views.
+ */
+@Configuration
+public class MovieServiceConfig {
+
+  @Bean
+  public MovieChangeStream movieChangeStream() {
+    return new MovieChangeStream();
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "catalog.source", havingValue = "static", matchIfMissing = true)
+  public MovieInfoService movieInfoService(MovieChangeStream movieChangeStream) {
+    var movieInfoService = new MovieInfoService();
+    movieInfoService.getMovieInfoRepository().setMovieChangeStream(movieChangeStream);
+    return movieInfoService;
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "catalog.source", havingValue = "static", matchIfMissing = true)
+  public ReviewService reviewService() {
+    return new ReviewService();
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "catalog.source", havingValue = "synthetic")
+  public SyntheticCatalog syntheticCatalog(Environment environment) {
+    return new SyntheticCatalog(CatalogSettings.fromProperties(environment::getProperty));
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "catalog.source", havingValue = "synthetic")
+  public SimulatedLatency catalogLatency(Environment environment) {
+    return new SimulatedLatency(
+        LatencyDistribution.parse(environment.getProperty("catalog.latency", "none")));
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "catalog.source", havingValue = "synthetic")
+  public MovieInfoService syntheticMovieInfoService(SyntheticCatalog syntheticCatalog,
+      SimulatedLatency catalogLatency) {
+    return new SyntheticMovieInfoService(syntheticCatalog, catalogLatency);
+  }
+
+  @Bean
+  @ConditionalOnProperty(name = "catalog.source", havingValue = "synthetic")
+  public ReviewService syntheticReviewService(SyntheticCatalog syntheticCatalog,
+      SimulatedLatency catalogLatency) {
+    return new SyntheticReviewService(syntheticCatalog, catalogLatency);
+  }
+
+  @Bean
+  public RevenueService revenueService(MovieChangeStream movieChangeStream) {
+    var revenueService = new RevenueService();
+    revenueService.setMovieChangeStream(movieChangeStream);
+    return revenueService;
+  }
+
+  //one revenue scheduler for the application, disposed with the context
+  @Bean(destroyMethod = "dispose")
+  public ReactiveRevenueService reactiveRevenueService(RevenueService revenueService) {
+    return new ReactiveRevenueService(revenueService);
+  }
+
+  @Bean
+  public MovieReactiveService movieReactiveService(MovieInfoService movieInfoService,
+      ReviewService reviewService, ReactiveRevenueService reactiveRevenueService,
+      MovieChangeStream movieChangeStream, MeterRegistry meterRegistry) {
+    var movieReactiveService = new MovieReactiveService(movieInfoService, reviewService,
+        reactiveRevenueService);
+    movieReactiveService.setMeterRegistry(meterRegistry);
+    movieReactiveService.setMovieChangeStream(movieChangeStream);
+    return movieReactiveService;
+  }
+
+  //a MeterBinder bean, Spring Boot binds its cache.* meters to the application MeterRegistry
+  @Bean
+  public MovieCache movieCache(MovieReactiveService movieReactiveService) {
+    return movieReactiveService.getMovieCache();
+  }
+
+  //the budget shared by the retrying pipelines, bound as retry.budget.* meters
+  @Bean
+  public RetryBudget retryBudget(MovieReactiveService movieReactiveService) {
+    return movieReactiveService.getRetryBudget();
+  }
+
+  @Bean
+  public CatalogFeed catalogFeed(MovieReactiveService movieReactiveService) {
+    return new CatalogFeed(movieReactiveService::getAllMovies);
+  }
+}
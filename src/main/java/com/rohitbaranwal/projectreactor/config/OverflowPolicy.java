@@ -0,0 +1,22 @@
+package com.rohitbaranwal.projectreactor.config;
+
+/**
+ * What ReviewIngest does with a review that arrives while its buffer is full.
+ */
+public enum OverflowPolicy {
+
+  //the subscriber gets an overflow error and the ingest stops accepting reviews
+  ERROR,
+
+  //the arriving review is dropped, the buffered ones are kept
+  DROP_NEWEST,
+
+  //the oldest buffered review is dropped to make room for the arriving one
+  DROP_OLDEST,
+
+  //only the most recent review is kept until the subscriber asks for it, the capacity is ignored
+  KEEP_LATEST,
+
+  //the producer waits for room, up to blockTimeout, and the review is dropped after that
+  BLOCK
+}
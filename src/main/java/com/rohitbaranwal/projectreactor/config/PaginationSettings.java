@@ -0,0 +1,32 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for the cursor based getAllMovies_paged of MovieReactiveService.
+ * Pages are never fetched ahead of demand, a page is only read when the subscriber asks for it.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class PaginationSettings {
+
+  @Builder.Default
+  private int pageSize = 100;
+
+  //larger page sizes are cut down to this, it bounds what one request can hold in memory
+  @Builder.Default
+  private int maxPageSize = 1000;
+
+  //how many review lookups of one page can run against ReviewService at the same time
+  @Builder.Default
+  private int reviewConcurrency = 8;
+
+  public static PaginationSettings defaults() {
+    return PaginationSettings.builder().build();
+  }
+}
@@ -0,0 +1,33 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for RetryBudget.
+ * Every successful call adds retryRatio tokens and every retry takes one, so retries stay at about
+ * retryRatio of recent successes. minRetriesPerSecond tokens are added each second on top of that
+ * so a service with little traffic can still retry.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class RetryBudgetSettings {
+
+  @Builder.Default
+  private double retryRatio = 0.2;
+
+  @Builder.Default
+  private double minRetriesPerSecond = 10;
+
+  //most tokens the bucket holds, this caps the size of a retry burst
+  @Builder.Default
+  private double maxTokens = 100;
+
+  public static RetryBudgetSettings defaults() {
+    return RetryBudgetSettings.builder().build();
+  }
+}
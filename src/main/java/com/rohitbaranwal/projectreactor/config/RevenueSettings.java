@@ -0,0 +1,32 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for the scheduler that runs the blocking RevenueService calls.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class RevenueSettings {
+
+  @Builder.Default
+  private BlockingExecutionMode executionMode = BlockingExecutionMode.BOUNDED_ELASTIC;
+
+  //max number of getRevenue calls running at the same time (threads of the revenue scheduler)
+  //only applies to BOUNDED_ELASTIC, virtual threads are not capped
+  @Builder.Default
+  private int maxConcurrency = 10;
+
+  //calls waiting for a free thread, beyond this the call is rejected
+  @Builder.Default
+  private int queuedTaskCap = 10_000;
+
+  public static RevenueSettings defaults() {
+    return RevenueSettings.builder().build();
+  }
+}
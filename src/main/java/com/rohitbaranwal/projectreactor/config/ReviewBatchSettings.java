@@ -0,0 +1,32 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for the batched review loading stage of MovieReactiveService.
+ * A batch is sent when batchSize ids are collected or maxWait has passed, whichever comes first.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ReviewBatchSettings {
+
+  @Builder.Default
+  private int batchSize = 100;
+
+  @Builder.Default
+  private Duration maxWait = Duration.ofMillis(10);
+
+  //how many batch lookups can run against ReviewService at the same time
+  @Builder.Default
+  private int maxBatchesInFlight = 4;
+
+  public static ReviewBatchSettings defaults() {
+    return ReviewBatchSettings.builder().build();
+  }
+}
@@ -0,0 +1,32 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for ReviewIngest, the buffer between review producers and the enrichment stage.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ReviewIngestSettings {
+
+  //reviews buffered while the subscriber is not asking for more
+  @Builder.Default
+  private int capacity = 256;
+
+  @Builder.Default
+  private OverflowPolicy overflowPolicy = OverflowPolicy.ERROR;
+
+  //only for BLOCK, how long a producer waits for room before its review is dropped
+  @Builder.Default
+  private Duration blockTimeout = Duration.ofSeconds(1);
+
+  public static ReviewIngestSettings defaults() {
+    return ReviewIngestSettings.builder().build();
+  }
+}
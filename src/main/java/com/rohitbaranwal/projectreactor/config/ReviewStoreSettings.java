@@ -0,0 +1,33 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import java.nio.file.Path;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for MappedReviewStore.
+ * Every segment file is mapped whole, a record never spans two segments so segmentSize is also
+ * the largest review that can be stored.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ReviewStoreSettings {
+
+  @Builder.Default
+  private Path directory = Path.of("data", "reviews");
+
+  @Builder.Default
+  private int segmentSize = 64 * 1024 * 1024;
+
+  //force every append to disk, otherwise the OS writes the mapped pages back when it likes
+  @Builder.Default
+  private boolean syncOnAppend = false;
+
+  public static ReviewStoreSettings defaults() {
+    return ReviewStoreSettings.builder().build();
+  }
+}
@@ -0,0 +1,38 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import com.rohitbaranwal.projectreactor.domain.MoviePart;
+import java.time.Duration;
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for the scatter-gather getMovieById of MovieReactiveService.
+ * Every source has its own timeout. Once all required parts have arrived, the parts that
+ * are still pending are given up, so only the required sources decide the latency.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class ScatterGatherSettings {
+
+  @Builder.Default
+  private Duration movieInfoTimeout = Duration.ofSeconds(1);
+
+  @Builder.Default
+  private Duration reviewsTimeout = Duration.ofSeconds(1);
+
+  @Builder.Default
+  private Duration revenueTimeout = Duration.ofSeconds(1);
+
+  //without one of these the lookup fails, empty waits for every part up to its own timeout
+  @Builder.Default
+  private Set<MoviePart> requiredParts = Set.of(MoviePart.MOVIE_INFO);
+
+  public static ScatterGatherSettings defaults() {
+    return ScatterGatherSettings.builder().build();
+  }
+}
@@ -0,0 +1,40 @@
+package com.rohitbaranwal.projectreactor.config;
+
+import java.util.Set;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Settings for SignalTracing.
+ * A pipeline is traced when it is not in disabledPipelines and either tracing is enabled or the
+ * pipeline is in enabledPipelines, and then only sampleRate of the pipelines get the log operator.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class TraceSettings {
+
+  @Builder.Default
+  private boolean enabled = true;
+
+  //1.0 traces every pipeline, 0.01 one in a hundred
+  @Builder.Default
+  private double sampleRate = 1.0;
+
+  @Builder.Default
+  private Set<String> enabledPipelines = Set.of();
+
+  @Builder.Default
+  private Set<String> disabledPipelines = Set.of();
+
+  //start up values, e.g. -Dtrace.enabled=false -Dtrace.sampleRate=0.01
+  public static TraceSettings fromSystemProperties() {
+    return TraceSettings.builder()
+        .enabled(Boolean.parseBoolean(System.getProperty("trace.enabled", "true")))
+        .sampleRate(Double.parseDouble(System.getProperty("trace.sampleRate", "1.0")))
+        .build();
+  }
+}
@@ -1,6 +1,7 @@
 package com.rohitbaranwal.projectreactor.domain;
 
 import java.util.List;
+import java.util.Set;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -17,9 +18,29 @@ public class Movie {
 
   private Revenue revenue;
 
+  //set instead of reviewList by the summary pipelines, which do not keep the reviews
+  private RatingSummary ratingSummary;
+
+  //set by the enrichment stage
+  private ReviewInsights reviewInsights;
+
+  //set by the scatter-gather lookup, the parts that did not arrive in time
+  private Set<MoviePart> missingParts;
+
   public Movie(MovieInfo movieInfo, List<Review> reviewList) {
     this.movieInfo = movieInfo;
     this.reviewList = reviewList;
   }
 
+  public Movie(MovieInfo movieInfo, List<Review> reviewList, Revenue revenue) {
+    this.movieInfo = movieInfo;
+    this.reviewList = reviewList;
+    this.revenue = revenue;
+  }
+
+  public Movie(MovieInfo movieInfo, RatingSummary ratingSummary) {
+    this.movieInfo = movieInfo;
+    this.ratingSummary = ratingSummary;
+  }
+
 }
@@ -0,0 +1,39 @@
+package com.rohitbaranwal.projectreactor.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A single change to one Movie: the movie id, which part changed and its new value.
+ * value is a Review for REVIEW_ADDED, a MovieInfo for MOVIE_INFO and a Revenue for REVENUE.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MovieDelta {
+
+  public enum Field {
+    REVIEW_ADDED,
+    MOVIE_INFO,
+    REVENUE
+  }
+
+  private long movieInfoId;
+
+  private Field field;
+
+  private Object value;
+
+  public static MovieDelta reviewAdded(Review review) {
+    return new MovieDelta(review.getMovieInfoId(), Field.REVIEW_ADDED, review);
+  }
+
+  public static MovieDelta movieInfoEdited(MovieInfo movieInfo) {
+    return new MovieDelta(movieInfo.getMovieInfoId(), Field.MOVIE_INFO, movieInfo);
+  }
+
+  public static MovieDelta revenueUpdated(Revenue revenue) {
+    return new MovieDelta(revenue.getMovieInfoId(), Field.REVENUE, revenue);
+  }
+}
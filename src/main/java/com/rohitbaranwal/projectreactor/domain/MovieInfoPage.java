@@ -0,0 +1,23 @@
+package com.rohitbaranwal.projectreactor.domain;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One page of the movie catalog. nextCursor is where the following page starts, it can be kept
+ * by the caller to resume after a disconnect. last is true when nothing came after this page at
+ * the time it was read.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MovieInfoPage {
+
+  private List<MovieInfo> movieInfos;
+
+  private long nextCursor;
+
+  private boolean last;
+}
@@ -0,0 +1,21 @@
+package com.rohitbaranwal.projectreactor.domain;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A MovieInfoPage with the reviews of every movie on it, see MovieInfoPage for the cursor.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class MoviePage {
+
+  private List<Movie> movies;
+
+  private long nextCursor;
+
+  private boolean last;
+}
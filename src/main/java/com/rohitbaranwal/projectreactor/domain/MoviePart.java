@@ -0,0 +1,10 @@
+package com.rohitbaranwal.projectreactor.domain;
+
+/**
+ * The sources a Movie is assembled from.
+ */
+public enum MoviePart {
+  MOVIE_INFO,
+  REVIEWS,
+  REVENUE
+}
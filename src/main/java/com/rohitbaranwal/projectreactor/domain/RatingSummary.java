@@ -0,0 +1,39 @@
+package com.rohitbaranwal.projectreactor.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Rating statistics of a movie, built while the reviews stream in so the reviews themselves
+ * never have to be kept. All values are 0 when there are no rated reviews.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class RatingSummary {
+
+  //one bucket per whole rating point, bucket i counts ratings in [i, i + 1), 10 is the last one
+  public static final int BUCKETS = 11;
+
+  private long count;
+
+  private double mean;
+
+  private double min;
+
+  private double max;
+
+  //population variance
+  private double variance;
+
+  private long[] histogram;
+
+  public static RatingSummary empty() {
+    return new RatingSummary(0, 0, 0, 0, 0, new long[BUCKETS]);
+  }
+
+  public double getStandardDeviation() {
+    return Math.sqrt(variance);
+  }
+}
@@ -0,0 +1,27 @@
+package com.rohitbaranwal.projectreactor.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * What the enrichment stage derived from the reviews of a movie.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+public class ReviewInsights {
+
+  //words over all review comments
+  private long tokenCount;
+
+  //mean sentiment of the reviews, from -1 (only negative words) to 1 (only positive words)
+  private double sentiment;
+
+  private long positiveReviews;
+
+  private long negativeReviews;
+
+  //mean rating scaled to 0..1
+  private double normalizedRating;
+}
@@ -0,0 +1,79 @@
+package com.rohitbaranwal.projectreactor.enrichment;
+
+import com.rohitbaranwal.projectreactor.domain.Movie;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.domain.ReviewInsights;
+import com.rohitbaranwal.projectreactor.util.TextOperators;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * CPU bound analysis of the reviews of a movie: comments are split into words with
+ * TextOperators.nextToken, lower cased and scored against a small sentiment lexicon and ratings
+ * are scaled to 0..1.
+ * Stateless, one instance can be used from every rail at the same time.
+ */
+public class ReviewEnricher {
+
+  static final double MAX_RATING = 10.0;
+
+  private static final Set<String> POSITIVE = Set.of("awesome", "excellent", "good", "great",
+      "brilliant", "amazing", "masterpiece", "loved", "worth", "best", "fun", "legendary");
+
+  private static final Set<String> NEGATIVE = Set.of("bad", "awful", "terrible", "boring",
+      "worst", "dull", "weak", "disappointing", "long", "poor", "hated", "mess");
+
+  public Movie enrich(Movie movie) {
+    movie.setReviewInsights(analyze(movie.getReviewList()));
+    return movie;
+  }
+
+  public ReviewInsights analyze(List<Review> reviews) {
+    if (reviews == null || reviews.isEmpty()) {
+      return new ReviewInsights();
+    }
+    long tokenCount = 0;
+    double sentimentSum = 0;
+    long positiveReviews = 0;
+    long negativeReviews = 0;
+    double ratingSum = 0;
+    int rated = 0;
+    for (var review : reviews) {
+      var comment = review.getComment() == null ? "" : review.getComment();
+      int positive = 0;
+      int negative = 0;
+      int tokens = 0;
+      for (var token = TextOperators.nextToken(comment, 0); token != null;
+          token = TextOperators.nextToken(comment, token.end())) {
+        tokens++;
+        var word = token.toString().toLowerCase(Locale.ROOT);
+        if (POSITIVE.contains(word)) {
+          positive++;
+        } else if (NEGATIVE.contains(word)) {
+          negative++;
+        }
+      }
+      tokenCount += tokens;
+      double sentiment = positive + negative == 0
+          ? 0
+          : (positive - negative) / (double) (positive + negative);
+      sentimentSum += sentiment;
+      if (sentiment > 0) {
+        positiveReviews++;
+      } else if (sentiment < 0) {
+        negativeReviews++;
+      }
+      if (review.getRating() != null) {
+        ratingSum += normalize(review.getRating());
+        rated++;
+      }
+    }
+    return new ReviewInsights(tokenCount, sentimentSum / reviews.size(), positiveReviews,
+        negativeReviews, rated == 0 ? 0 : ratingSum / rated);
+  }
+
+  static double normalize(double rating) {
+    return Math.max(0, Math.min(1, rating / MAX_RATING));
+  }
+}
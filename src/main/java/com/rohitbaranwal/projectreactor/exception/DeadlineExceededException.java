@@ -0,0 +1,10 @@
+package com.rohitbaranwal.projectreactor.exception;
+
+public class DeadlineExceededException extends RuntimeException {
+  String message;
+
+  public DeadlineExceededException(String message) {
+    super(message);
+    this.message = message;
+  }
+}
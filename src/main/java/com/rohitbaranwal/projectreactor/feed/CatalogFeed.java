@@ -0,0 +1,172 @@
+package com.rohitbaranwal.projectreactor.feed;
+
+import com.rohitbaranwal.projectreactor.config.CatalogFeedSettings;
+import com.rohitbaranwal.projectreactor.domain.Movie;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Hot catalog shared by all subscribers, the catalog is loaded once per connection and not
+ * once per subscriber like getAllMovies.
+ * The first subscriber connects: a replay sink is created and the catalog (usually
+ * MovieReactiveService::getAllMovies) is loaded into it, publish adds live updates. Late
+ * subscribers get the last replaySize movies and then the live updates. The replay does not tell
+ * the catalog apart from the updates: with a catalog larger than replaySize, or after enough
+ * updates, a late subscriber only sees the tail of the catalog, so replaySize has to cover the
+ * catalog plus the updates a late subscriber should still see. When the last
+ * subscriber leaves the feed disconnects after gracePeriod and the next one loads it again.
+ * Every subscriber has its own bounded buffer and is served on its own worker, so a slow one
+ * only drops its own oldest movies and does not hold up the others.
+ */
+@Slf4j
+public class CatalogFeed {
+
+  private static final Sinks.EmitFailureHandler RETRY_CONCURRENT_EMIT =
+      Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100));
+
+  private final Supplier<Flux<Movie>> catalogLoader;
+
+  private final CatalogFeedSettings settings;
+
+  //guarded by this
+  private Sinks.Many<Movie> sink;
+
+  private Disposable catalogLoad;
+
+  private Disposable pendingDisconnect;
+
+  private int subscribers;
+
+  private long connections;
+
+  private final LongAdder dropped = new LongAdder();
+
+  public CatalogFeed(Supplier<Flux<Movie>> catalogLoader) {
+    this(catalogLoader, CatalogFeedSettings.defaults());
+  }
+
+  public CatalogFeed(Supplier<Flux<Movie>> catalogLoader, CatalogFeedSettings settings) {
+    this.catalogLoader = catalogLoader;
+    this.settings = settings;
+  }
+
+  public Flux<Movie> movies() {
+    //the subscriber is added to the sink before the load starts, otherwise a fast load could push
+    //the start of the catalog out of the replay before the first subscriber gets it
+    return Flux.defer(() -> {
+          var connected = connect();
+          return connected.asFlux().mergeWith(Mono.fromRunnable(() -> startLoad(connected)));
+        })
+        .doFinally(signalType -> release())
+        .onBackpressureBuffer(settings.getSubscriberBufferSize(),
+            movie -> dropped.increment(), BufferOverflowStrategy.DROP_OLDEST)
+        //prefetch 1 so the movies waiting for a slow subscriber stay in the buffer above
+        .publishOn(Schedulers.parallel(), 1);
+  }
+
+  //live update, ignored while nobody is subscribed, the next connection loads a fresh catalog
+  public void publish(Movie movie) {
+    Sinks.Many<Movie> current;
+    synchronized (this) {
+      current = sink;
+    }
+    if (current != null) {
+      current.emitNext(movie, RETRY_CONCURRENT_EMIT);
+    }
+  }
+
+  public synchronized int subscriberCount() {
+    return subscribers;
+  }
+
+  //how many times the catalog was loaded
+  public synchronized long connections() {
+    return connections;
+  }
+
+  //movies dropped from the buffers of slow subscribers
+  public long dropped() {
+    return dropped.sum();
+  }
+
+  private synchronized Sinks.Many<Movie> connect() {
+    subscribers++;
+    if (pendingDisconnect != null) {
+      pendingDisconnect.dispose();
+      pendingDisconnect = null;
+    }
+    if (sink == null) {
+      sink = newReplaySink();
+      connections++;
+    }
+    return sink;
+  }
+
+  //once per connection, by whichever subscriber of it gets here first
+  private synchronized void startLoad(Sinks.Many<Movie> connected) {
+    if (sink != connected || catalogLoad != null) {
+      return;
+    }
+    catalogLoad = catalogLoader.get().subscribe(
+        movie -> connected.emitNext(movie, RETRY_CONCURRENT_EMIT),
+        error -> failed(connected, error));
+  }
+
+  private Sinks.Many<Movie> newReplaySink() {
+    var replay = Sinks.many().replay();
+    return settings.getReplayMaxAge() == null
+        ? replay.limit(settings.getReplaySize())
+        : replay.limit(settings.getReplaySize(), settings.getReplayMaxAge());
+  }
+
+  //the subscribers get the error, the next subscriber connects again
+  private void failed(Sinks.Many<Movie> failedSink, Throwable error) {
+    log.error("Catalog feed load failed", error);
+    synchronized (this) {
+      if (sink == failedSink) {
+        sink = null;
+        catalogLoad = null;
+      }
+    }
+    failedSink.emitError(error, RETRY_CONCURRENT_EMIT);
+  }
+
+  private synchronized void release() {
+    if (--subscribers > 0 || sink == null) {
+      return;
+    }
+    var gracePeriod = settings.getGracePeriod();
+    if (gracePeriod.isZero()) {
+      disconnect();
+    } else {
+      pendingDisconnect = Schedulers.parallel().schedule(this::disconnectIfUnused,
+          gracePeriod.toMillis(), TimeUnit.MILLISECONDS);
+    }
+  }
+
+  private synchronized void disconnectIfUnused() {
+    pendingDisconnect = null;
+    if (subscribers == 0) {
+      disconnect();
+    }
+  }
+
+  //called with the lock held
+  private void disconnect() {
+    if (catalogLoad != null) {
+      catalogLoad.dispose();
+      catalogLoad = null;
+    }
+    sink.emitComplete(RETRY_CONCURRENT_EMIT);
+    sink = null;
+  }
+}
@@ -1,9 +1,13 @@
 package com.rohitbaranwal.projectreactor.first;
 
+import static com.rohitbaranwal.projectreactor.util.SignalTracing.traceFlux;
+import static com.rohitbaranwal.projectreactor.util.SignalTracing.traceMono;
+
 import com.rohitbaranwal.projectreactor.exception.ReactorException;
+import com.rohitbaranwal.projectreactor.util.TextOperators;
 import java.time.Duration;
 import java.util.List;
-import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
 import reactor.core.publisher.Flux;
@@ -13,13 +17,13 @@ import reactor.core.publisher.Mono;
 public class FluxAndMonoGeneratorService {
 
   public Flux<String> namesFlux() {
-    return Flux.fromIterable(List.of("alex", "ben", "chloe")).log(); //db call or service point call
+    return Flux.fromIterable(List.of("alex", "ben", "chloe")).transform(traceFlux("namesFlux")); //db call or service point call
   }
 
   public Flux<String> namesFlux_map() {
     return Flux.fromIterable(List.of("alex", "ben", "chloe"))
         .map(String::toUpperCase)
-        .log(); //db call or service point call
+        .transform(traceFlux("namesFlux_map")); //db call or service point call
   }
 
   public Flux<String> namesFlux_immutability() {
@@ -35,7 +39,7 @@ public class FluxAndMonoGeneratorService {
         .map(String::toUpperCase)
         .filter(s -> s.length() > strLen)
         .map(s -> s.length() + "-" + s)
-        .log();
+        .transform(traceFlux("namesFlux_MapThenfilterThenMap"));
   }
 
   public static void main(String[] args) {
@@ -43,6 +47,7 @@ public class FluxAndMonoGeneratorService {
 
     /* namesFlux is a data publisher which is then subscribed
       - To understand what happened behind added log as chaining in line number 10
+        (log is now added by transform(traceFlux(..)), it can be switched off or sampled with SignalTracing.configure)
       - first request is subscribed to publisher (subscription object is returned back)
       - then request is sent for unbound data available f(i.e., it's asking the Publisher to emit all available items without any limit.)
       - then events are recieved 1 by 1 using onNext() function
@@ -66,7 +71,7 @@ public class FluxAndMonoGeneratorService {
         .filter(s -> s.length() > strLen)
         //ALEX, CHLOE -> A, L,E,X,C,H,L,O,E
         .flatMap(s -> convertStringToChar(s))
-        .log();
+        .transform(traceFlux("namesFlux_mapThenfilter_thenFlatMap"));
   }
 
   public Flux<String> namesFlux_mapThenfilter_thenFlatMap_async(int strLen) {
@@ -75,7 +80,7 @@ public class FluxAndMonoGeneratorService {
         .filter(s -> s.length() > strLen)
         //ALEX, CHLOE -> A, L,E,X,C,H,L,O,E
         .flatMap(s -> convertStringToChar_withDelay(s))
-        .log();
+        .transform(traceFlux("namesFlux_mapThenfilter_thenFlatMap_async"));
   }
 
   public Flux<String> namesFlux_mapThenfilter_thenConcatMap(int strLen) {
@@ -84,7 +89,7 @@ public class FluxAndMonoGeneratorService {
         .filter(s -> s.length() > strLen)
         //ALEX, CHLOE -> A, L,E,X,C,H,L,O,E
         .concatMap(s -> convertStringToChar_withDelay(s))
-        .log();
+        .transform(traceFlux("namesFlux_mapThenfilter_thenConcatMap"));
   }
 
   public Flux<String> namesFlux_transform(int strLen) {
@@ -96,7 +101,7 @@ public class FluxAndMonoGeneratorService {
         .transform(filterMap)
         //ALEX, CHLOE -> A, L,E,X,C,H,L,O,E
         .concatMap(s -> convertStringToChar_withDelay(s))
-        .log();
+        .transform(traceFlux("namesFlux_transform"));
   }
 
   public Flux<String> namesFlux_transform_defaultIfEmpty(int strLen) {
@@ -110,7 +115,7 @@ public class FluxAndMonoGeneratorService {
         //No value will be present if we have strlen in incoming greater than 5
         //we can use default value
         .defaultIfEmpty("default")
-        .log();
+        .transform(traceFlux("namesFlux_transform_defaultIfEmpty"));
   }
 
   public Flux<String> namesFlux_transform_switchIfEmpty(int strLen) {
@@ -124,7 +129,7 @@ public class FluxAndMonoGeneratorService {
     return Flux.fromIterable(List.of("alex", "ben", "chloe"))
         .transform(filterMap)
         .switchIfEmpty(defaultFlux) //RETURN defaultflux if no output post transform
-        .log();
+        .transform(traceFlux("namesFlux_transform_switchIfEmpty"));
   }
 
   public Flux<String> explore_concat() {
@@ -135,7 +140,7 @@ public class FluxAndMonoGeneratorService {
 
     //concat //this works like first complete fluxABC and then fluxDEF
     //using static method of Flux class
-    return Flux.concat(abcFlux, defFlux).log();
+    return Flux.concat(abcFlux, defFlux).transform(traceFlux("explore_concat"));
   }
 
   public Flux<String> explore_concatwith() {
@@ -146,7 +151,7 @@ public class FluxAndMonoGeneratorService {
 
     //concatWith //this works like first complete fluxABC and then fluxDEF
     //using instance method of abcFlux
-    return abcFlux.concatWith(defFlux).log();
+    return abcFlux.concatWith(defFlux).transform(traceFlux("explore_concatwith"));
   }
 
   //concat subscribes to the Publishers in sequence
@@ -158,7 +163,7 @@ public class FluxAndMonoGeneratorService {
 
     //concatWith //this works like first complete aMono and then bMono
     //using instance method of aMono
-    return aMono.concatWith(bMono).log(); //returns flux of two values post concat
+    return aMono.concatWith(bMono).transform(traceFlux("explore_concatwith_mono")); //returns flux of two values post concat
   }
 
   public Flux<String> explore_merge() {
@@ -169,7 +174,7 @@ public class FluxAndMonoGeneratorService {
     Flux<String> defFlux = Flux.just("D", "E", "F")
         .delayElements(Duration.ofMillis(150)); //THINK DATA COMING FROM SERVICE B
     //ordering is not present with merge or mergeWith any result could be return depending on what is available
-    return Flux.merge(abcFlux, defFlux).log();
+    return Flux.merge(abcFlux, defFlux).transform(traceFlux("explore_merge"));
   }
 
   public Flux<String> explore_mergewith() {
@@ -181,7 +186,7 @@ public class FluxAndMonoGeneratorService {
         .delayElements(Duration.ofMillis(90)); //THINK DATA COMING FROM SERVICE B
 
     //ordering is not present with merge or mergeWith any result could be return depending on what is available
-    return abcFlux.mergeWith(defFlux).log();
+    return abcFlux.mergeWith(defFlux).transform(traceFlux("explore_mergewith"));
   }
 
   public Flux<String> explore_mergewith_mono() {
@@ -190,7 +195,7 @@ public class FluxAndMonoGeneratorService {
 
     Mono<String> bMono = Mono.just("B"); //single DATA COMING FROM SERVICE B
 
-    return aMono.mergeWith(bMono).log(); //returns flux of two values post concat
+    return aMono.mergeWith(bMono).transform(traceFlux("explore_mergewith_mono")); //returns flux of two values post concat
   }
 
   public Flux<String> explore_mergeSequential() {
@@ -201,7 +206,7 @@ public class FluxAndMonoGeneratorService {
     Flux<String> defFlux = Flux.just("D", "E", "F")
         .delayElements(Duration.ofMillis(150)); //THINK DATA COMING FROM SERVICE B
     //ordering is preserved first abcFlux then defFlux
-    return Flux.mergeSequential(abcFlux, defFlux).log();
+    return Flux.mergeSequential(abcFlux, defFlux).transform(traceFlux("explore_mergeSequential"));
   }
 
   public Flux<String> explore_zip() {
@@ -223,7 +228,8 @@ public class FluxAndMonoGeneratorService {
     //This will return AD14 , BE25 , CF36
     //basically when we use zip it forms Tuple as result
     //thing like Tuple4<String, String, Integer, Integer> then we use map on tuple to comibine all 4 result
-    return Flux.zip(abcFlux, defFlux, flux3, flux4).map((t1) -> t1.getT1() + t1.getT2() + t1.getT3() + t1.getT4()).log();
+    return Flux.zip(abcFlux, defFlux, flux3, flux4).map((t1) -> t1.getT1() + t1.getT2() + t1.getT3() + t1.getT4())
+        .transform(traceFlux("explore_zip_1"));
   }
 
   public Flux<String> explore_zip_with() {
@@ -232,7 +238,7 @@ public class FluxAndMonoGeneratorService {
     var defFlux = Flux.just("D", "E", "F");
 
     //This will return AD , BE , CF
-    return abcFlux.zipWith(defFlux, (first, second) -> first + second).log();
+    return abcFlux.zipWith(defFlux, (first, second) -> first + second).transform(traceFlux("explore_zip_with"));
   }
 
   public Mono<String> explore_zipwith_mono() {
@@ -241,7 +247,7 @@ public class FluxAndMonoGeneratorService {
 
     Mono<String> bMono = Mono.just("B"); //single DATA COMING FROM SERVICE B
 
-    return aMono.zipWith(bMono).map(t2 -> t2.getT1() + t2.getT2()).log();
+    return aMono.zipWith(bMono).map(t2 -> t2.getT1() + t2.getT2()).transform(traceMono("explore_zipwith_mono"));
   }
 
   public Flux<String> namesFlux_MapThenfilterThenMap_doCallBackMethods(int strLen) {
@@ -271,7 +277,7 @@ public class FluxAndMonoGeneratorService {
           System.out.println("Inside finally: "
               + signalType);//this says last event that got emitted out of reactive stream
         })
-        .log();//this becomes obsulute after use of doOnNext()
+        .transform(traceFlux("namesFlux_MapThenfilterThenMap_doCallBackMethods"));//this becomes obsulute after use of doOnNext()
   }
 
   public Flux<String> exception_flux() {
@@ -279,7 +285,7 @@ public class FluxAndMonoGeneratorService {
     return Flux.just("A", "B", "C")
         .concatWith(Flux.error(new RuntimeException("Unexpected Error Occured")))
         .concatWith(Flux.just("D"))
-        .log();
+        .transform(traceFlux("exception_flux"));
   }
 
   public Flux<String> explore_onErrorReturn() {
@@ -287,7 +293,7 @@ public class FluxAndMonoGeneratorService {
     return Flux.just("A", "B", "C")
         .concatWith(Flux.error(new IllegalStateException("Unexpected Error Occured")))
         .onErrorReturn("D") //HANDLE EXCEPTION AND RETURN DEFAULT VALUE WITH INITIAL VALUES
-        .log();
+        .transform(traceFlux("explore_onErrorReturn"));
   }
 
   public Flux<String> explore_onErrorResume(Exception e) {
@@ -304,7 +310,7 @@ public class FluxAndMonoGeneratorService {
             return Flux.error(ex);
           }
         })
-        .log();
+        .transform(traceFlux("explore_onErrorResume"));
   }
 
   public Flux<String> explore_onErrorContinue() {
@@ -321,7 +327,7 @@ public class FluxAndMonoGeneratorService {
           log.error("Exception is : ", ex);
           log.error("Element caused exception: {}", name);
         }) //REJECT ELEMENTS WHICH CAUSED EXCPETION AND THEN CONTINUE
-        .log();
+        .transform(traceFlux("explore_onErrorContinue"));
   }
 
   public Flux<String> explore_onErrorMap() {
@@ -338,7 +344,7 @@ public class FluxAndMonoGeneratorService {
           log.error("Exception is : ", ex);
           return new ReactorException(ex, ex.getMessage());
         })
-        .log();
+        .transform(traceFlux("explore_onErrorMap"));
   }
 
   public Flux<String> explore_doOnError() {
@@ -349,7 +355,7 @@ public class FluxAndMonoGeneratorService {
         .doOnError(ex -> {
           log.error("Exception occured: ", ex);
         })
-        .log();
+        .transform(traceFlux("explore_doOnError"));
   }
 
   public Mono<Object> explore_mono_onErrorReturn() {
@@ -359,18 +365,17 @@ public class FluxAndMonoGeneratorService {
           throw new RuntimeException("Exception Occured");
         })
         .onErrorReturn("abc")
-        .log();
+        .transform(traceMono("explore_mono_onErrorReturn"));
   }
 
+  //TextOperators walks the name by code point, split("") compiles a regex and splits emojis
   public Flux<String> convertStringToChar(String name) {
-    var charArray = name.split("");
-    return Flux.fromArray(charArray);
+    return TextOperators.characters(name);
   }
 
   public Flux<String> convertStringToChar_withDelay(String name) {
-    var charArray = name.split("");
-    var delay = new Random().nextInt(1000);
-    return Flux.fromArray(charArray)
+    var delay = ThreadLocalRandom.current().nextInt(1000);
+    return TextOperators.characters(name)
         .delayElements(Duration.ofMillis(delay));
   }
 
@@ -389,7 +394,7 @@ public class FluxAndMonoGeneratorService {
         .map(String::toUpperCase)
         .filter(s -> s.length() > strLen)
         .flatMap(this::convertStringToCharMono)
-        .log(); //List.of("A", "L", "E", "X");
+        .transform(traceMono("namesMono_map_filter_thenFlatMap")); //List.of("A", "L", "E", "X");
   }
 
   public Flux<String> namesMono_map_filter_thenFlatMapMany(int strLen) {
@@ -401,8 +406,7 @@ public class FluxAndMonoGeneratorService {
   }
 
   private Mono<List<String>> convertStringToCharMono(String s) {
-    var charArray = s.split("");
-    return Mono.just(List.of(charArray));
+    return Mono.just(TextOperators.characterList(s));
   }
 
   public Mono<String> exception_mono_onErrorContinue(String input) {
@@ -419,7 +423,7 @@ public class FluxAndMonoGeneratorService {
           log.info("Exception Occured", ex);
           log.info("value is: {}", value);
         })
-        .log();
+        .transform(traceMono("exception_mono_onErrorContinue"));
   }
 
 }
@@ -0,0 +1,277 @@
+package com.rohitbaranwal.projectreactor.ingest;
+
+import com.rohitbaranwal.projectreactor.config.OverflowPolicy;
+import com.rohitbaranwal.projectreactor.config.ReviewIngestSettings;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.service.ReviewService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hot, push based review stream. Producers push reviews with submit (or ingest a whole
+ * ReviewService lookup) as fast as they come, a single subscriber of reviews() pulls them at
+ * its own pace. Reviews the subscriber has not asked for wait in a bounded buffer and the
+ * OverflowPolicy decides what happens when it is full.
+ * queueDepth, dropped and blockedTime are kept per policy so the policies can be compared
+ * under load, bindTo publishes them to Micrometer.
+ */
+@Slf4j
+public class ReviewIngest implements MeterBinder {
+
+  private final ReviewService reviewService;
+
+  private final ReviewIngestSettings settings;
+
+  private final ReentrantLock lock = new ReentrantLock();
+
+  private final Condition notFull = lock.newCondition();
+
+  //guarded by lock
+  private final ArrayDeque<Review> buffer = new ArrayDeque<>();
+
+  private volatile int queueDepth;
+
+  private volatile int maxQueueDepth;
+
+  private final LongAdder accepted = new LongAdder();
+
+  private final LongAdder dropped = new LongAdder();
+
+  private final LongAdder delivered = new LongAdder();
+
+  private final LongAdder blockedNanos = new LongAdder();
+
+  private final AtomicReference<FluxSink<Review>> subscriber = new AtomicReference<>();
+
+  private final AtomicInteger drainWip = new AtomicInteger();
+
+  //set by close, no more reviews are accepted
+  private volatile boolean closed;
+
+  //set by the ERROR policy, no more reviews are accepted
+  private volatile Throwable overflow;
+
+  public ReviewIngest(ReviewService reviewService, ReviewIngestSettings settings) {
+    this.reviewService = reviewService;
+    this.settings = settings;
+  }
+
+  //the stream of ingested reviews, only one subscriber at a time
+  public Flux<Review> reviews() {
+    return Flux.create(sink -> {
+      if (!subscriber.compareAndSet(null, sink)) {
+        sink.error(new IllegalStateException("ReviewIngest allows only one subscriber"));
+        return;
+      }
+      sink.onRequest(n -> drain());
+      sink.onDispose(() -> subscriber.compareAndSet(sink, null));
+      drain();
+    }, FluxSink.OverflowStrategy.ERROR);
+  }
+
+  //pushes every review of movieInfoId from ReviewService without waiting for the subscriber
+  public Mono<Void> ingest(long movieInfoId) {
+    return ingest(Flux.defer(() -> reviewService.retrieveReviewsFlux(movieInfoId)));
+  }
+
+  public Mono<Void> ingest(Publisher<? extends Review> reviews) {
+    return Flux.from(reviews).doOnNext(this::submit).then();
+  }
+
+  //true when the review was buffered, false when it was dropped. With BLOCK this waits for room
+  //in the buffer, so it must not be called from a non-blocking thread
+  public boolean submit(Review review) {
+    boolean buffered = enqueue(review);
+    drain();
+    return buffered;
+  }
+
+  //the subscriber completes once it has taken the reviews that are still buffered. closed is set
+  //under the lock so an enqueue in flight either lands in the buffer before it or is dropped
+  public void close() {
+    lock.lock();
+    try {
+      closed = true;
+      notFull.signalAll();
+    } finally {
+      lock.unlock();
+    }
+    drain();
+  }
+
+  public int queueDepth() {
+    return queueDepth;
+  }
+
+  public int maxQueueDepth() {
+    return maxQueueDepth;
+  }
+
+  public long accepted() {
+    return accepted.sum();
+  }
+
+  public long dropped() {
+    return dropped.sum();
+  }
+
+  public long delivered() {
+    return delivered.sum();
+  }
+
+  public Duration blockedTime() {
+    return Duration.ofNanos(blockedNanos.sum());
+  }
+
+  public OverflowPolicy overflowPolicy() {
+    return settings.getOverflowPolicy();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    String policy = overflowPolicy().name();
+    Gauge.builder("reviews.ingest.queue.depth", this, ReviewIngest::queueDepth)
+        .tag("policy", policy)
+        .register(registry);
+    FunctionCounter.builder("reviews.ingest.accepted", this, ReviewIngest::accepted)
+        .tag("policy", policy)
+        .register(registry);
+    FunctionCounter.builder("reviews.ingest.dropped", this, ReviewIngest::dropped)
+        .tag("policy", policy)
+        .register(registry);
+    FunctionCounter.builder("reviews.ingest.blocked", this,
+            ingest -> ingest.blockedNanos.sum() / (double) TimeUnit.SECONDS.toNanos(1))
+        .tag("policy", policy)
+        .baseUnit("seconds")
+        .register(registry);
+  }
+
+  private boolean enqueue(Review review) {
+    lock.lock();
+    try {
+      if (closed || overflow != null) {
+        dropped.increment();
+        return false;
+      }
+      switch (settings.getOverflowPolicy()) {
+        case ERROR -> {
+          if (isFull()) {
+            dropped.increment();
+            overflow = Exceptions.failWithOverflow(
+                "Review ingest buffer of " + settings.getCapacity() + " is full");
+            return false;
+          }
+        }
+        case DROP_NEWEST -> {
+          if (isFull()) {
+            dropped.increment();
+            return false;
+          }
+        }
+        case DROP_OLDEST -> {
+          if (isFull()) {
+            buffer.pollFirst();
+            dropped.increment();
+          }
+        }
+        case KEEP_LATEST -> {
+          dropped.add(buffer.size());
+          buffer.clear();
+        }
+        case BLOCK -> {
+          if (isFull() && !awaitRoom()) {
+            dropped.increment();
+            return false;
+          }
+        }
+      }
+      buffer.addLast(review);
+      accepted.increment();
+      updateDepth();
+      return true;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  //called with the lock held, false when there is still no room after blockTimeout
+  private boolean awaitRoom() {
+    long start = System.nanoTime();
+    long remaining = settings.getBlockTimeout().toNanos();
+    try {
+      while (isFull() && !closed && remaining > 0) {
+        remaining = notFull.awaitNanos(remaining);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      blockedNanos.add(System.nanoTime() - start);
+    }
+    return !isFull() && !closed;
+  }
+
+  private boolean isFull() {
+    return buffer.size() >= settings.getCapacity();
+  }
+
+  private Review poll() {
+    lock.lock();
+    try {
+      var review = buffer.pollFirst();
+      if (review != null) {
+        updateDepth();
+        notFull.signal();
+      }
+      return review;
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  private void updateDepth() {
+    int depth = buffer.size();
+    queueDepth = depth;
+    if (depth > maxQueueDepth) {
+      maxQueueDepth = depth;
+    }
+  }
+
+  //one thread at a time hands buffered reviews to the subscriber, as many as it asked for
+  private void drain() {
+    if (drainWip.getAndIncrement() != 0) {
+      return;
+    }
+    do {
+      var sink = subscriber.get();
+      if (sink != null) {
+        Review review;
+        while (sink.requestedFromDownstream() > 0 && (review = poll()) != null) {
+          delivered.increment();
+          sink.next(review);
+        }
+        if (overflow != null) {
+          log.warn("Review ingest overflow, {} reviews dropped", dropped.sum());
+          sink.error(overflow);
+        } else if (closed && queueDepth == 0) {
+          sink.complete();
+        }
+      }
+    } while (drainWip.decrementAndGet() != 0);
+  }
+}
@@ -0,0 +1,80 @@
+package com.rohitbaranwal.projectreactor.latency;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Source of simulated downstream latencies, next() is called once per simulated call.
+ * Implementations must be safe to call from many threads.
+ */
+@FunctionalInterface
+public interface LatencyDistribution {
+
+  Duration next();
+
+  static LatencyDistribution none() {
+    return fixed(Duration.ZERO);
+  }
+
+  static LatencyDistribution fixed(Duration latency) {
+    return () -> latency;
+  }
+
+  static LatencyDistribution uniform(Duration min, Duration max) {
+    var minNanos = min.toNanos();
+    var maxNanos = max.toNanos();
+    return () -> Duration.ofNanos(ThreadLocalRandom.current().nextLong(minNanos, maxNanos + 1));
+  }
+
+  //half of the calls are faster than median, sigma 0.5 to 1.0 gives the long tail of a real service
+  static LatencyDistribution logNormal(Duration median, double sigma) {
+    var medianNanos = median.toNanos();
+    return () -> Duration.ofNanos(
+        (long) (medianNanos * Math.exp(sigma * ThreadLocalRandom.current().nextGaussian())));
+  }
+
+  //replays latencies measured in production, every call picks a random recorded sample
+  static LatencyDistribution trace(List<Duration> recorded) {
+    if (recorded.isEmpty()) {
+      throw new IllegalArgumentException("Latency trace is empty");
+    }
+    var samples = List.copyOf(recorded);
+    return () -> samples.get(ThreadLocalRandom.current().nextInt(samples.size()));
+  }
+
+  //one latency in milliseconds per line, blank lines are skipped
+  static LatencyDistribution trace(Path file) {
+    try (var lines = Files.lines(file)) {
+      return trace(lines
+          .map(String::trim)
+          .filter(line -> !line.isEmpty())
+          .map(line -> Duration.ofNanos((long) (Double.parseDouble(line) * 1_000_000)))
+          .toList());
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  //"none", "fixed:5", "uniform:1,10", "lognormal:5,0.5" or "trace:latencies.txt", times in ms
+  static LatencyDistribution parse(String spec) {
+    var type = spec.contains(":") ? spec.substring(0, spec.indexOf(':')) : spec;
+    var args = spec.contains(":") ? spec.substring(spec.indexOf(':') + 1).split(",") : new String[0];
+    return switch (type.trim().toLowerCase()) {
+      case "none" -> none();
+      case "fixed" -> fixed(millis(args[0]));
+      case "uniform" -> uniform(millis(args[0]), millis(args[1]));
+      case "lognormal" -> logNormal(millis(args[0]), Double.parseDouble(args[1].trim()));
+      case "trace" -> trace(Path.of(args[0].trim()));
+      default -> throw new IllegalArgumentException("Unknown latency distribution " + spec);
+    };
+  }
+
+  private static Duration millis(String value) {
+    return Duration.ofNanos((long) (Double.parseDouble(value.trim()) * 1_000_000));
+  }
+}
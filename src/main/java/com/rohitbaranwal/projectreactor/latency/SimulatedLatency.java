@@ -0,0 +1,72 @@
+package com.rohitbaranwal.projectreactor.latency;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Simulated downstream call latency, drawn from a LatencyDistribution.
+ * pause() is the blocking version and holds the calling thread like a real blocking client.
+ * delayMono/delayFlux wait on a timer (Mono.delay) so no thread is held while waiting,
+ * every subscription draws a new latency.
+ */
+public class SimulatedLatency {
+
+  private final LatencyDistribution distribution;
+
+  public SimulatedLatency(LatencyDistribution distribution) {
+    this.distribution = distribution;
+  }
+
+  public static SimulatedLatency none() {
+    return new SimulatedLatency(LatencyDistribution.none());
+  }
+
+  public static SimulatedLatency fixed(Duration latency) {
+    return new SimulatedLatency(LatencyDistribution.fixed(latency));
+  }
+
+  public void pause() {
+    var latency = distribution.next();
+    if (latency.isZero()) {
+      return;
+    }
+    try {
+      TimeUnit.NANOSECONDS.sleep(latency.toNanos());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  public <T> Mono<T> delayMono(Supplier<? extends T> value) {
+    return Mono.defer(() -> {
+      var latency = distribution.next();
+      return latency.isZero()
+          ? Mono.fromSupplier(value)
+          : Mono.delay(latency).map(tick -> value.get());
+    });
+  }
+
+  public <T> Mono<T> delayMono(Mono<? extends T> value) {
+    Mono<T> mono = Mono.from(value);
+    return Mono.defer(() -> {
+      var latency = distribution.next();
+      return latency.isZero()
+          ? mono
+          : Mono.delay(latency).then(mono);
+    });
+  }
+
+  public <T> Flux<T> delayFlux(Publisher<? extends T> values) {
+    Flux<T> flux = Flux.from(values);
+    return Flux.defer(() -> {
+      var latency = distribution.next();
+      return latency.isZero()
+          ? flux
+          : Mono.delay(latency).thenMany(flux);
+    });
+  }
+}
@@ -0,0 +1,84 @@
+package com.rohitbaranwal.projectreactor.load;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Open loop load generator: requests are started at a fixed rate no matter how long earlier ones
+ * take, up to maxInFlight at a time. Every tick starts all requests that are due by now, so the
+ * rate holds even when the timer fires late.
+ */
+public class LoadDriver {
+
+  private static final Duration TICK = Duration.ofMillis(1);
+
+  private final double requestsPerSecond;
+
+  private final Duration duration;
+
+  private final int maxInFlight;
+
+  public LoadDriver(double requestsPerSecond, Duration duration) {
+    this(requestsPerSecond, duration, 10_000);
+  }
+
+  public LoadDriver(double requestsPerSecond, Duration duration, int maxInFlight) {
+    this.requestsPerSecond = requestsPerSecond;
+    this.duration = duration;
+    this.maxInFlight = maxInFlight;
+  }
+
+  //request gets the sequence number of the call, e.g. to pick a movie id
+  public Mono<LoadReport> run(LongFunction<? extends Publisher<?>> request) {
+    return Mono.defer(() -> {
+      var total = (long) (requestsPerSecond * duration.toNanos() / 1_000_000_000.0);
+      var latencies = new ConcurrentHistogram(3);
+      var errors = new LongAdder();
+      var started = new AtomicLong();
+      var startNanos = System.nanoTime();
+
+      return Flux.interval(Duration.ZERO, TICK)
+          .onBackpressureDrop()
+          .concatMap(tick -> {
+            var elapsed = System.nanoTime() - startNanos;
+            var due = Math.min(total, (long) (elapsed * requestsPerSecond / 1_000_000_000.0));
+            var from = started.getAndSet(due);
+            return Flux.fromStream(LongStream.range(from, due).boxed());
+          })
+          .take(total)
+          .flatMap(sequence -> {
+            var scheduledNanos =
+                startNanos + (long) (sequence * 1_000_000_000.0 / requestsPerSecond);
+            return Flux.from(request.apply(sequence))
+                .then()
+                .onErrorResume(e -> {
+                  errors.increment();
+                  return Mono.empty();
+                })
+                //before completion is passed on, so the report sees every latency
+                .doOnTerminate(() -> latencies.recordValue(
+                    Math.max(0L, System.nanoTime() - scheduledNanos)));
+          }, maxInFlight)
+          .then(Mono.fromSupplier(() -> {
+            var elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+            return LoadReport.builder()
+                .requests(latencies.getTotalCount())
+                .errors(errors.sum())
+                .elapsed(elapsed)
+                .throughput(latencies.getTotalCount() / (elapsed.toNanos() / 1_000_000_000.0))
+                .p50(Duration.ofNanos(latencies.getValueAtPercentile(50.0)))
+                .p99(Duration.ofNanos(latencies.getValueAtPercentile(99.0)))
+                .p999(Duration.ofNanos(latencies.getValueAtPercentile(99.9)))
+                .max(Duration.ofNanos(latencies.getMaxValue()))
+                .build();
+          }));
+    });
+  }
+}
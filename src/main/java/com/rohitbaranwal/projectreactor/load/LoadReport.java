@@ -0,0 +1,46 @@
+package com.rohitbaranwal.projectreactor.load;
+
+import java.time.Duration;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one LoadDriver run. Latencies are measured from the time a request was scheduled to
+ * start, so requests queued behind slow ones count their waiting time too.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Builder
+public class LoadReport {
+
+  private long requests;
+
+  private long errors;
+
+  private Duration elapsed;
+
+  //completed requests per second
+  private double throughput;
+
+  private Duration p50;
+
+  private Duration p99;
+
+  private Duration p999;
+
+  private Duration max;
+
+  public String summary() {
+    return String.format(
+        "requests=%d errors=%d elapsed=%dms throughput=%.1f/s p50=%.3fms p99=%.3fms p999=%.3fms max=%.3fms",
+        requests, errors, elapsed.toMillis(), throughput, millis(p50), millis(p99), millis(p999),
+        millis(max));
+  }
+
+  private static double millis(Duration duration) {
+    return duration.toNanos() / 1_000_000.0;
+  }
+}
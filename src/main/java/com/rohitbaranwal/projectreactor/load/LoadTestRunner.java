@@ -0,0 +1,57 @@
+package com.rohitbaranwal.projectreactor.load;
+
+import com.rohitbaranwal.projectreactor.catalog.SyntheticCatalog;
+import com.rohitbaranwal.projectreactor.config.CatalogSettings;
+import com.rohitbaranwal.projectreactor.config.TraceSettings;
+import com.rohitbaranwal.projectreactor.latency.LatencyDistribution;
+import com.rohitbaranwal.projectreactor.latency.SimulatedLatency;
+import com.rohitbaranwal.projectreactor.service.MovieReactiveService;
+import com.rohitbaranwal.projectreactor.service.SyntheticMovieInfoService;
+import com.rohitbaranwal.projectreactor.service.SyntheticReviewService;
+import com.rohitbaranwal.projectreactor.util.SignalTracing;
+import java.time.Duration;
+import java.util.function.LongFunction;
+import org.reactivestreams.Publisher;
+
+/**
+ * Runs a MovieReactiveService method against a synthetic catalog with ./gradlew loadTest, e.g.
+ * -Dload.method=getMovieById -Dload.rate=5000 -Dload.seconds=30 -Dcatalog.movies=1000000
+ * -Dcatalog.latency=lognormal:5,0.5 adds non blocking latency to every catalog call,
+ * see LatencyDistribution.parse.
+ */
+public class LoadTestRunner {
+
+  public static void main(String[] args) {
+    //a log line per signal would be the bottleneck
+    SignalTracing.configure(TraceSettings.builder()
+        .enabled(Boolean.parseBoolean(System.getProperty("trace.enabled", "false")))
+        .build());
+
+    var catalog = new SyntheticCatalog(CatalogSettings.fromProperties(System::getProperty));
+    var latency = new SimulatedLatency(
+        LatencyDistribution.parse(System.getProperty("catalog.latency", "none")));
+    var movieReactiveService = new MovieReactiveService(
+        new SyntheticMovieInfoService(catalog, latency),
+        new SyntheticReviewService(catalog, latency));
+
+    var method = System.getProperty("load.method", "getMovieById");
+    var rate = Double.parseDouble(System.getProperty("load.rate", "1000"));
+    var duration = Duration.ofSeconds(Long.parseLong(System.getProperty("load.seconds", "10")));
+
+    var report = new LoadDriver(rate, duration)
+        .run(request(movieReactiveService, catalog, method))
+        .block();
+
+    System.out.println(method + " at " + rate + "/s: " + report.summary());
+  }
+
+  private static LongFunction<Publisher<?>> request(MovieReactiveService movieReactiveService,
+      SyntheticCatalog catalog, String method) {
+    return switch (method) {
+      case "getAllMovies" -> sequence -> movieReactiveService.getAllMovies();
+      case "getMovieById" -> sequence -> movieReactiveService.getMovieById(
+          SyntheticCatalog.FIRST_MOVIE_ID + sequence % catalog.movieCount());
+      default -> throw new IllegalArgumentException("Unknown load.method " + method);
+    };
+  }
+}
@@ -0,0 +1,121 @@
+package com.rohitbaranwal.projectreactor.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+/**
+ * Micrometer instrumentation for the MovieReactiveService pipelines, every meter is tagged with
+ * the pipeline name.
+ * movies.pipeline.duration - timer (with histogram) from subscribe to complete/error/cancel,
+ * tagged with outcome and exception
+ * movies.pipeline.elements - elements emitted per subscription
+ * movies.pipeline.errors - errors by exception type (MovieException, ServiceException, ...)
+ * movies.pipeline.retries - resubscriptions done by retry/retryWhen
+ */
+public class PipelineMetrics {
+
+  private static final String NONE = "none";
+
+  private final MeterRegistry meterRegistry;
+
+  public PipelineMetrics(MeterRegistry meterRegistry) {
+    this.meterRegistry = meterRegistry;
+  }
+
+  public <T> Function<Flux<T>, Flux<T>> instrumentFlux(String pipeline) {
+    return flux -> Flux.defer(() -> {
+      var subscription = new PipelineSubscription(pipeline);
+      return flux
+          .doOnNext(element -> subscription.elements.incrementAndGet())
+          .doOnError(subscription.error::set)
+          .doFinally(subscription::record);
+    });
+  }
+
+  public <T> Function<Mono<T>, Mono<T>> instrumentMono(String pipeline) {
+    return mono -> Mono.defer(() -> {
+      var subscription = new PipelineSubscription(pipeline);
+      return mono
+          .doOnNext(element -> subscription.elements.incrementAndGet())
+          .doOnError(subscription.error::set)
+          .doFinally(subscription::record);
+    });
+  }
+
+  //wraps the retry operator, every subscription after the first one made by it is a retry
+  public <T> Function<Flux<T>, Flux<T>> countRetries(String pipeline,
+      Function<Flux<T>, Flux<T>> retryOperator) {
+    Counter retries = Counter.builder("movies.pipeline.retries")
+        .tag("pipeline", pipeline)
+        .register(meterRegistry);
+
+    return flux -> Flux.defer(() -> {
+      var attempts = new AtomicInteger();
+      return retryOperator.apply(flux.doOnSubscribe(s -> {
+        if (attempts.getAndIncrement() > 0) {
+          retries.increment();
+        }
+      }));
+    });
+  }
+
+  private class PipelineSubscription {
+
+    private final String pipeline;
+
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong elements = new AtomicLong();
+
+    private final AtomicReference<Throwable> error = new AtomicReference<>();
+
+    PipelineSubscription(String pipeline) {
+      this.pipeline = pipeline;
+    }
+
+    void record(SignalType signalType) {
+      Throwable failure = error.get();
+      String exception = failure == null ? NONE : failure.getClass().getSimpleName();
+
+      Timer.builder("movies.pipeline.duration")
+          .tag("pipeline", pipeline)
+          .tag("outcome", outcome(signalType))
+          .tag("exception", exception)
+          .publishPercentileHistogram()
+          .register(meterRegistry)
+          .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+
+      DistributionSummary.builder("movies.pipeline.elements")
+          .tag("pipeline", pipeline)
+          .register(meterRegistry)
+          .record(elements.get());
+
+      if (failure != null) {
+        Counter.builder("movies.pipeline.errors")
+            .tag("pipeline", pipeline)
+            .tag("exception", exception)
+            .register(meterRegistry)
+            .increment();
+      }
+    }
+
+    private String outcome(SignalType signalType) {
+      return switch (signalType) {
+        case ON_COMPLETE -> "success";
+        case ON_ERROR -> "error";
+        case CANCEL -> "cancelled";
+        default -> signalType.name().toLowerCase();
+      };
+    }
+  }
+}
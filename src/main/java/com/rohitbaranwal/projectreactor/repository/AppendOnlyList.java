@@ -0,0 +1,62 @@
+package com.rohitbaranwal.projectreactor.repository;
+
+import java.util.Arrays;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Growable list for the secondary indexes of MovieInfoRepository, one writer appends under the
+ * repository write lock while readers stream without locking. The element is stored before the
+ * volatile size is raised and the array only grows, so a reader that reads size first always sees
+ * size initialized elements. Removal is lazy: the writer only counts stale elements and replaces
+ * the list by a compacted copy once they outnumber the live ones, so appends stay O(1) amortized.
+ */
+final class AppendOnlyList<E> {
+
+  private Object[] elements;
+
+  private volatile int size;
+
+  private int stale;
+
+  AppendOnlyList() {
+    this(new Object[4], 0);
+  }
+
+  private AppendOnlyList(Object[] elements, int size) {
+    this.elements = elements;
+    this.size = size;
+  }
+
+  void add(E element) {
+    var size = this.size;
+    if (size == elements.length) {
+      elements = Arrays.copyOf(elements, size * 2);
+    }
+    elements[size] = element;
+    this.size = size + 1;
+  }
+
+  void markStale() {
+    stale++;
+  }
+
+  boolean needsCompaction() {
+    return stale * 2 > size;
+  }
+
+  //new list with the elements that are still live, null when none are left
+  AppendOnlyList<E> compact(Predicate<? super E> live) {
+    var kept = stream().filter(live).toArray();
+    return kept.length == 0
+        ? null
+        : new AppendOnlyList<>(Arrays.copyOf(kept, Math.max(4, kept.length)), kept.length);
+  }
+
+  @SuppressWarnings("unchecked")
+  Stream<E> stream() {
+    var size = this.size;
+    var elements = this.elements;
+    return Arrays.stream(elements, 0, size).map(element -> (E) element);
+  }
+}
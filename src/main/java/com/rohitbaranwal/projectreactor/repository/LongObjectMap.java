@@ -0,0 +1,135 @@
+package com.rohitbaranwal.projectreactor.repository;
+
+/**
+ * Open addressing hash map from primitive long keys to values with linear probing, keys are never
+ * boxed and get() allocates nothing.
+ * Not thread safe on its own: MovieInfoRepository serializes writes and validates reads with a
+ * StampedLock. Both arrays live in one Table so a reader always sees a matching pair, and a
+ * removed slot keeps a tombstone until the next resize so live entries never move.
+ */
+final class LongObjectMap<V> {
+
+  private static final Object TOMBSTONE = new Object();
+
+  private static final int MIN_CAPACITY = 16;
+
+  private static final class Table {
+
+    final long[] keys;
+
+    final Object[] values;
+
+    Table(int capacity) {
+      keys = new long[capacity];
+      values = new Object[capacity];
+    }
+  }
+
+  private Table table = new Table(MIN_CAPACITY);
+
+  private int size;
+
+  private int tombstones;
+
+  @SuppressWarnings("unchecked")
+  V get(long key) {
+    var table = this.table;
+    var keys = table.keys;
+    var values = table.values;
+    var mask = keys.length - 1;
+    var slot = slot(key, mask);
+    for (int probes = 0; probes <= mask; probes++) {
+      var value = values[slot];
+      if (value == null) {
+        return null;
+      }
+      if (value != TOMBSTONE && keys[slot] == key) {
+        return (V) value;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  V put(long key, V value) {
+    if ((size + tombstones + 1) * 4L > table.keys.length * 3L) {
+      //only grow when live entries need it, otherwise the rehash just drops the tombstones
+      resize(size * 2 >= table.keys.length ? table.keys.length * 2 : table.keys.length);
+    }
+    var keys = table.keys;
+    var values = table.values;
+    var mask = keys.length - 1;
+    var slot = slot(key, mask);
+    var firstTombstone = -1;
+    while (values[slot] != null) {
+      if (values[slot] == TOMBSTONE) {
+        if (firstTombstone < 0) {
+          firstTombstone = slot;
+        }
+      } else if (keys[slot] == key) {
+        var previous = (V) values[slot];
+        values[slot] = value;
+        return previous;
+      }
+      slot = (slot + 1) & mask;
+    }
+    if (firstTombstone >= 0) {
+      slot = firstTombstone;
+      tombstones--;
+    }
+    keys[slot] = key;
+    values[slot] = value;
+    size++;
+    return null;
+  }
+
+  @SuppressWarnings("unchecked")
+  V remove(long key) {
+    var keys = table.keys;
+    var values = table.values;
+    var mask = keys.length - 1;
+    var slot = slot(key, mask);
+    while (values[slot] != null) {
+      if (values[slot] != TOMBSTONE && keys[slot] == key) {
+        var previous = (V) values[slot];
+        values[slot] = TOMBSTONE;
+        size--;
+        tombstones++;
+        return previous;
+      }
+      slot = (slot + 1) & mask;
+    }
+    return null;
+  }
+
+  int size() {
+    return size;
+  }
+
+  private void resize(int capacity) {
+    var old = table;
+    var resized = new Table(capacity);
+    var mask = capacity - 1;
+    for (int i = 0; i < old.keys.length; i++) {
+      var value = old.values[i];
+      if (value != null && value != TOMBSTONE) {
+        var slot = slot(old.keys[i], mask);
+        while (resized.values[slot] != null) {
+          slot = (slot + 1) & mask;
+        }
+        resized.keys[slot] = old.keys[i];
+        resized.values[slot] = value;
+      }
+    }
+    tombstones = 0;
+    //published last, readers see either the old or the complete new table
+    table = resized;
+  }
+
+  //sequential ids would cluster in neighbouring slots without mixing
+  private static int slot(long key, int mask) {
+    var hash = key * 0x9E3779B97F4A7C15L;
+    return (int) (hash ^ (hash >>> 32)) & mask;
+  }
+}
@@ -0,0 +1,248 @@
+package com.rohitbaranwal.projectreactor.repository;
+
+import com.rohitbaranwal.projectreactor.changes.MovieChangeStream;
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.domain.MovieInfoPage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * In memory MovieInfo store with a primary index on the primitive movieInfoId and secondary
+ * indexes by year and by cast member.
+ * Writes are serialized by a StampedLock, reads take an optimistic stamp and only fall back to
+ * the read lock when a write ran at the same time, so get(long) neither blocks nor allocates.
+ * Secondary indexes hold the entries saved under a key, a Flux over them skips every entry that
+ * was replaced or deleted since. findAll returns movies in insertion order, findPage returns a
+ * slice of the same order with the insertion log position as the cursor.
+ * A saved MovieInfo must not be changed afterwards, save a new instance instead.
+ * Once a MovieChangeStream is set, every save is reported to it as a MOVIE_INFO delta.
+ */
+public class MovieInfoRepository {
+
+  private static final class Entry {
+
+    final long movieInfoId;
+
+    final MovieInfo movieInfo;
+
+    //index in the insertion log, kept when a movie is updated
+    final int position;
+
+    Entry(MovieInfo movieInfo, int position) {
+      this.movieInfoId = movieInfo.getMovieInfoId();
+      this.movieInfo = movieInfo;
+      this.position = position;
+    }
+  }
+
+  private final StampedLock lock = new StampedLock();
+
+  private final LongObjectMap<Entry> byId = new LongObjectMap<>();
+
+  private final LongObjectMap<AppendOnlyList<Entry>> byYear = new LongObjectMap<>();
+
+  private final ConcurrentHashMap<String, AppendOnlyList<Entry>> byCast = new ConcurrentHashMap<>();
+
+  //ids in insertion order, only appended to, entries of deleted or re-added ids are skipped
+  private long[] insertionLog = new long[16];
+
+  private volatile int insertionLogSize;
+
+  private volatile MovieChangeStream movieChanges;
+
+  public MovieInfoRepository() {
+  }
+
+  public MovieInfoRepository(Collection<MovieInfo> movieInfos) {
+    movieInfos.forEach(this::save);
+  }
+
+  public MovieInfo get(long movieInfoId) {
+    var entry = read(byId, movieInfoId);
+    return entry == null ? null : entry.movieInfo;
+  }
+
+  public Mono<MovieInfo> findById(long movieInfoId) {
+    return Mono.fromSupplier(() -> get(movieInfoId));
+  }
+
+  public Flux<MovieInfo> findAll() {
+    return Flux.fromStream(() -> {
+      //size first, the log array it belongs to was published before it
+      var size = insertionLogSize;
+      var log = insertionLog;
+      return IntStream.range(0, size)
+          .mapToObj(position -> {
+            var entry = read(byId, log[position]);
+            return entry != null && entry.position == position ? entry.movieInfo : null;
+          })
+          .filter(Objects::nonNull);
+    });
+  }
+
+  //cursor 0 is the first page, movies saved after the last page show up when resuming from its
+  //nextCursor
+  public Mono<MovieInfoPage> findPage(long cursor, int pageSize) {
+    return Mono.fromSupplier(() -> {
+      var size = insertionLogSize;
+      var log = insertionLog;
+      var movieInfos = new ArrayList<MovieInfo>(Math.min(pageSize, size));
+      var position = (int) Math.min(cursor, size);
+      for (; position < size && movieInfos.size() < pageSize; position++) {
+        var entry = read(byId, log[position]);
+        if (entry != null && entry.position == position) {
+          movieInfos.add(entry.movieInfo);
+        }
+      }
+      return new MovieInfoPage(movieInfos, position, position >= size);
+    });
+  }
+
+  public Flux<MovieInfo> findByYear(int year) {
+    return stream(() -> read(byYear, year));
+  }
+
+  public Flux<MovieInfo> findByCastMember(String castMember) {
+    return stream(() -> byCast.get(castMember));
+  }
+
+  public MovieInfo save(MovieInfo movieInfo) {
+    long movieInfoId = movieInfo.getMovieInfoId();
+    var stamp = lock.writeLock();
+    try {
+      var previous = byId.get(movieInfoId);
+      var position = previous == null ? appendToLog(movieInfoId) : previous.position;
+      var entry = new Entry(movieInfo, position);
+      byId.put(movieInfoId, entry);
+      if (previous != null) {
+        unindex(previous);
+      }
+      index(entry);
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+    var changes = movieChanges;
+    if (changes != null) {
+      changes.movieInfoEdited(movieInfo);
+    }
+    return movieInfo;
+  }
+
+  public boolean delete(long movieInfoId) {
+    var stamp = lock.writeLock();
+    try {
+      var removed = byId.remove(movieInfoId);
+      if (removed != null) {
+        unindex(removed);
+      }
+      return removed != null;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+  }
+
+  public void setMovieChangeStream(MovieChangeStream movieChanges) {
+    this.movieChanges = movieChanges;
+  }
+
+  public int size() {
+    var stamp = lock.readLock();
+    try {
+      return byId.size();
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private <V> V read(LongObjectMap<V> map, long key) {
+    var stamp = lock.tryOptimisticRead();
+    var value = map.get(key);
+    if (!lock.validate(stamp)) {
+      stamp = lock.readLock();
+      try {
+        value = map.get(key);
+      } finally {
+        lock.unlockRead(stamp);
+      }
+    }
+    return value;
+  }
+
+  private Flux<MovieInfo> stream(Supplier<AppendOnlyList<Entry>> entries) {
+    return Flux.fromStream(() -> {
+      var list = entries.get();
+      return list == null
+          ? Stream.empty()
+          : list.stream().filter(this::isCurrent).map(entry -> entry.movieInfo);
+    });
+  }
+
+  private boolean isCurrent(Entry entry) {
+    return read(byId, entry.movieInfoId) == entry;
+  }
+
+  //for the writer, the StampedLock is not reentrant so it must not go through read
+  private boolean isCurrentLocked(Entry entry) {
+    return byId.get(entry.movieInfoId) == entry;
+  }
+
+  private int appendToLog(long movieInfoId) {
+    var position = insertionLogSize;
+    if (position == insertionLog.length) {
+      insertionLog = Arrays.copyOf(insertionLog, position * 2);
+    }
+    insertionLog[position] = movieInfoId;
+    insertionLogSize = position + 1;
+    return position;
+  }
+
+  private void index(Entry entry) {
+    var year = entry.movieInfo.getYear();
+    if (year != null) {
+      var entries = byYear.get(year);
+      if (entries == null) {
+        entries = new AppendOnlyList<>();
+        byYear.put(year, entries);
+      }
+      entries.add(entry);
+    }
+    castMembers(entry).forEach(castMember ->
+        byCast.computeIfAbsent(castMember, key -> new AppendOnlyList<>()).add(entry));
+  }
+
+  //the entry is no longer current, the lists skip it until they are compacted
+  private void unindex(Entry entry) {
+    var year = entry.movieInfo.getYear();
+    if (year != null) {
+      var entries = byYear.get(year);
+      entries.markStale();
+      if (entries.needsCompaction()) {
+        var compacted = entries.compact(this::isCurrentLocked);
+        if (compacted == null) {
+          byYear.remove(year);
+        } else {
+          byYear.put(year, compacted);
+        }
+      }
+    }
+    castMembers(entry).forEach(castMember -> byCast.computeIfPresent(castMember,
+        (key, entries) -> {
+          entries.markStale();
+          return entries.needsCompaction() ? entries.compact(this::isCurrentLocked) : entries;
+        }));
+  }
+
+  private static Stream<String> castMembers(Entry entry) {
+    var cast = entry.movieInfo.getCast();
+    return cast == null ? Stream.empty() : cast.stream().distinct();
+  }
+}
@@ -0,0 +1,259 @@
+package com.rohitbaranwal.projectreactor.repository;
+
+import com.rohitbaranwal.projectreactor.changes.MovieChangeStream;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import reactor.core.publisher.Flux;
+
+/**
+ * Columnar, append-only review container: one primitive array per field and all comments packed
+ * into a single UTF-8 byte arena, so a review costs its field bytes instead of a Review object,
+ * two Longs, a Double and a String. The rows of a movie are linked in insertion order.
+ * Callers that need objects get ReviewView flyweights, ratings(movieInfoId) reads the rating
+ * column directly. Writes take the write lock, readers take a snapshot of the rows of a movie
+ * under the read lock and then read the columns without locking, rows never change once written.
+ * Once a MovieChangeStream is set, every added review is reported to it.
+ */
+public class ReviewColumns {
+
+  static final long NULL_ID = Long.MIN_VALUE;
+
+  private static final int NO_ROW = -1;
+
+  //array references of one generation of the columns, replaced when a column grows
+  static final class Columns {
+
+    final long[] reviewIds;
+
+    final long[] movieInfoIds;
+
+    final double[] ratings;
+
+    //end of the comment of a row in the arena, -(end + 1) for a null comment
+    final int[] commentEnds;
+
+    final int[] nextRows;
+
+    final byte[] arena;
+
+    Columns(int capacity, int arenaCapacity) {
+      this(new long[capacity], new long[capacity], new double[capacity], new int[capacity],
+          new int[capacity], new byte[arenaCapacity]);
+    }
+
+    private Columns(long[] reviewIds, long[] movieInfoIds, double[] ratings, int[] commentEnds,
+        int[] nextRows, byte[] arena) {
+      this.reviewIds = reviewIds;
+      this.movieInfoIds = movieInfoIds;
+      this.ratings = ratings;
+      this.commentEnds = commentEnds;
+      this.nextRows = nextRows;
+      this.arena = arena;
+    }
+
+    Columns withCapacity(int capacity, int arenaCapacity) {
+      return new Columns(Arrays.copyOf(reviewIds, capacity), Arrays.copyOf(movieInfoIds, capacity),
+          Arrays.copyOf(ratings, capacity), Arrays.copyOf(commentEnds, capacity),
+          Arrays.copyOf(nextRows, capacity), Arrays.copyOf(arena, arenaCapacity));
+    }
+
+    int commentStart(int row) {
+      return row == 0 ? 0 : commentEnd(row - 1);
+    }
+
+    int commentEnd(int row) {
+      var end = commentEnds[row];
+      return end < 0 ? -end - 1 : end;
+    }
+
+    boolean commentIsNull(int row) {
+      return commentEnds[row] < 0;
+    }
+  }
+
+  private static final class MovieRows {
+
+    final int first;
+
+    final int last;
+
+    final int count;
+
+    MovieRows(int first, int last, int count) {
+      this.first = first;
+      this.last = last;
+      this.count = count;
+    }
+  }
+
+  private final StampedLock lock = new StampedLock();
+
+  private final LongObjectMap<MovieRows> byMovie = new LongObjectMap<>();
+
+  private Columns columns;
+
+  private int size;
+
+  private int arenaSize;
+
+  private volatile MovieChangeStream movieChanges;
+
+  public ReviewColumns() {
+    this(1024);
+  }
+
+  public ReviewColumns(int initialCapacity) {
+    var capacity = Math.max(16, initialCapacity);
+    columns = new Columns(capacity, capacity * 16);
+  }
+
+  public int add(Review review) {
+    var comment = review.getComment() == null
+        ? null
+        : review.getComment().getBytes(StandardCharsets.UTF_8);
+    int row;
+    var stamp = lock.writeLock();
+    try {
+      ensureCapacity(comment == null ? 0 : comment.length);
+      row = size;
+      long movieInfoId = review.getMovieInfoId();
+      columns.reviewIds[row] = review.getReviewId() == null ? NULL_ID : review.getReviewId();
+      columns.movieInfoIds[row] = movieInfoId;
+      columns.ratings[row] = review.getRating() == null ? Double.NaN : review.getRating();
+      if (comment != null) {
+        System.arraycopy(comment, 0, columns.arena, arenaSize, comment.length);
+        arenaSize += comment.length;
+      }
+      columns.commentEnds[row] = comment == null ? -arenaSize - 1 : arenaSize;
+      columns.nextRows[row] = NO_ROW;
+
+      var rows = byMovie.get(movieInfoId);
+      if (rows == null) {
+        byMovie.put(movieInfoId, new MovieRows(row, row, 1));
+      } else {
+        columns.nextRows[rows.last] = row;
+        byMovie.put(movieInfoId, new MovieRows(rows.first, row, rows.count + 1));
+      }
+      size = row + 1;
+    } finally {
+      lock.unlockWrite(stamp);
+    }
+    var changes = movieChanges;
+    if (changes != null) {
+      changes.reviewAdded(review);
+    }
+    return row;
+  }
+
+  public void addAll(Iterable<Review> reviews) {
+    reviews.forEach(this::add);
+  }
+
+  public void setMovieChangeStream(MovieChangeStream movieChanges) {
+    this.movieChanges = movieChanges;
+  }
+
+  public int size() {
+    var stamp = lock.readLock();
+    try {
+      return size;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  public int reviewCount(long movieInfoId) {
+    var stamp = lock.readLock();
+    try {
+      var rows = byMovie.get(movieInfoId);
+      return rows == null ? 0 : rows.count;
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  //flyweight views in insertion order, each one reads its fields from the columns on access
+  public Flux<Review> reviews(long movieInfoId) {
+    return Flux.defer(() -> {
+      var snapshot = snapshot(movieInfoId);
+      return Flux.range(0, snapshot.rows.length)
+          .map(i -> new ReviewView(snapshot.columns, snapshot.rows[i]));
+    });
+  }
+
+  public List<Review> reviewList(long movieInfoId) {
+    var snapshot = snapshot(movieInfoId);
+    var reviews = new ArrayList<Review>(snapshot.rows.length);
+    for (var row : snapshot.rows) {
+      reviews.add(new ReviewView(snapshot.columns, row));
+    }
+    return reviews;
+  }
+
+  //ratings straight from the rating column, reviews without a rating are skipped
+  public DoubleStream ratings(long movieInfoId) {
+    var snapshot = snapshot(movieInfoId);
+    return IntStream.of(snapshot.rows)
+        .mapToDouble(row -> snapshot.columns.ratings[row])
+        .filter(rating -> !Double.isNaN(rating));
+  }
+
+  private static final class Snapshot {
+
+    final Columns columns;
+
+    final int[] rows;
+
+    Snapshot(Columns columns, int[] rows) {
+      this.columns = columns;
+      this.rows = rows;
+    }
+  }
+
+  private Snapshot snapshot(long movieInfoId) {
+    var stamp = lock.readLock();
+    try {
+      var movieRows = byMovie.get(movieInfoId);
+      if (movieRows == null) {
+        return new Snapshot(columns, new int[0]);
+      }
+      var rows = new int[movieRows.count];
+      var row = movieRows.first;
+      for (int i = 0; i < rows.length; i++) {
+        rows[i] = row;
+        row = columns.nextRows[row];
+      }
+      return new Snapshot(columns, rows);
+    } finally {
+      lock.unlockRead(stamp);
+    }
+  }
+
+  private void ensureCapacity(int commentLength) {
+    var capacity = columns.reviewIds.length;
+    var arenaCapacity = columns.arena.length;
+    if (size == capacity) {
+      capacity = grow(capacity, capacity + 1);
+    }
+    if (arenaSize + commentLength > arenaCapacity) {
+      arenaCapacity = grow(arenaCapacity, arenaSize + commentLength);
+    }
+    if (capacity != columns.reviewIds.length || arenaCapacity != columns.arena.length) {
+      columns = columns.withCapacity(capacity, arenaCapacity);
+    }
+  }
+
+  private static int grow(int capacity, int needed) {
+    var grown = Math.max((long) capacity + (capacity >> 1), needed);
+    if (grown > Integer.MAX_VALUE - 8) {
+      throw new IllegalStateException("Review columns are full at " + capacity);
+    }
+    return (int) grown;
+  }
+}
@@ -0,0 +1,76 @@
+package com.rohitbaranwal.projectreactor.repository;
+
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only Review backed by one row of ReviewColumns. The getters decode the row on every call,
+ * equals, hashCode and toString go through them so a view compares equal to a plain Review.
+ */
+public class ReviewView extends Review {
+
+  private final ReviewColumns.Columns columns;
+
+  private final int row;
+
+  ReviewView(ReviewColumns.Columns columns, int row) {
+    this.columns = columns;
+    this.row = row;
+  }
+
+  @Override
+  public Long getReviewId() {
+    var reviewId = columns.reviewIds[row];
+    return reviewId == ReviewColumns.NULL_ID ? null : reviewId;
+  }
+
+  @Override
+  public Long getMovieInfoId() {
+    return columns.movieInfoIds[row];
+  }
+
+  @Override
+  public String getComment() {
+    if (columns.commentIsNull(row)) {
+      return null;
+    }
+    var start = columns.commentStart(row);
+    return new String(columns.arena, start, columns.commentEnd(row) - start,
+        StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public Double getRating() {
+    var rating = columns.ratings[row];
+    return Double.isNaN(rating) ? null : rating;
+  }
+
+  //primitive getters for callers that do not want the boxes
+  public double rating() {
+    return columns.ratings[row];
+  }
+
+  public long movieInfoId() {
+    return columns.movieInfoIds[row];
+  }
+
+  @Override
+  public void setReviewId(Long reviewId) {
+    throw new UnsupportedOperationException("ReviewView is read-only");
+  }
+
+  @Override
+  public void setMovieInfoId(Long movieInfoId) {
+    throw new UnsupportedOperationException("ReviewView is read-only");
+  }
+
+  @Override
+  public void setComment(String comment) {
+    throw new UnsupportedOperationException("ReviewView is read-only");
+  }
+
+  @Override
+  public void setRating(Double rating) {
+    throw new UnsupportedOperationException("ReviewView is read-only");
+  }
+}
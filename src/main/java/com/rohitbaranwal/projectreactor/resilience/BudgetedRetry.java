@@ -0,0 +1,99 @@
+package com.rohitbaranwal.projectreactor.resilience;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.ContextView;
+import reactor.util.retry.Retry;
+
+/**
+ * Retry spec with decorrelated jitter backoff that takes a token from a RetryBudget for every retry.
+ * delay = min(maxBackoff, random(minBackoff, previousDelay * 3))
+ * When the attempts are used up, the filter does not match or the budget denies the retry,
+ * the original failure is propagated (same as onRetryExhaustedThrow with Exceptions.propagate).
+ * Retrying also stops when the backoff would run past the request Deadline in the Context.
+ */
+@Slf4j
+public class BudgetedRetry extends Retry {
+
+  private final RetryBudget retryBudget;
+
+  private final long maxAttempts;
+
+  private final Duration minBackoff;
+
+  private final Duration maxBackoff;
+
+  private final Predicate<? super Throwable> filter;
+
+  private BudgetedRetry(RetryBudget retryBudget, long maxAttempts, Duration minBackoff,
+      Duration maxBackoff, Predicate<? super Throwable> filter) {
+    this.retryBudget = retryBudget;
+    this.maxAttempts = maxAttempts;
+    this.minBackoff = minBackoff;
+    this.maxBackoff = maxBackoff;
+    this.filter = filter;
+  }
+
+  public static BudgetedRetry backoff(RetryBudget retryBudget, long maxAttempts,
+      Duration minBackoff) {
+    return new BudgetedRetry(retryBudget, maxAttempts, minBackoff, minBackoff.multipliedBy(10),
+        e -> true);
+  }
+
+  public BudgetedRetry maxBackoff(Duration maxBackoff) {
+    return new BudgetedRetry(retryBudget, maxAttempts, minBackoff, maxBackoff, filter);
+  }
+
+  public BudgetedRetry filter(Predicate<? super Throwable> filter) {
+    return new BudgetedRetry(retryBudget, maxAttempts, minBackoff, maxBackoff, filter);
+  }
+
+  @Override
+  public Publisher<?> generateCompanion(Flux<RetrySignal> retrySignals) {
+    //called once per subscription, so the previous delay is per subscriber
+    var previousBackoff = new long[]{minBackoff.toMillis()};
+
+    //the companion sees the Context of the retried pipeline, so a request Deadline is visible here
+    return retrySignals.concatMap(retrySignal -> {
+      var signal = retrySignal.copy();
+      return Mono.deferContextual(contextView -> {
+        Throwable failure = signal.failure();
+        if (!filter.test(failure) || signal.totalRetries() >= maxAttempts) {
+          return Mono.error(failure);
+        }
+        if (signal.totalRetries() == 0) {
+          previousBackoff[0] = minBackoff.toMillis();
+        }
+        long backoff = nextBackoff(previousBackoff[0]);
+        if (!fitsDeadline(contextView, backoff)) {
+          log.warn("Request deadline reached, not retrying: {}", failure.getMessage());
+          return Mono.error(failure);
+        }
+        if (!retryBudget.tryAcquireRetry()) {
+          log.warn("Retry budget exhausted, not retrying: {}", failure.getMessage());
+          return Mono.error(failure);
+        }
+        previousBackoff[0] = backoff;
+        return Mono.delay(Duration.ofMillis(backoff));
+      });
+    });
+  }
+
+  //no point backing off past the deadline, the retried call would be cancelled straight away
+  private boolean fitsDeadline(ContextView contextView, long backoffMillis) {
+    return Deadline.from(contextView)
+        .map(deadline -> deadline.remaining().toMillis() > backoffMillis)
+        .orElse(true);
+  }
+
+  private long nextBackoff(long previousBackoff) {
+    long min = minBackoff.toMillis();
+    long upper = Math.max(min, previousBackoff * 3);
+    return Math.min(maxBackoff.toMillis(), ThreadLocalRandom.current().nextLong(min, upper + 1));
+  }
+}
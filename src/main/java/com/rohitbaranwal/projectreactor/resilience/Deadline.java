@@ -0,0 +1,93 @@
+package com.rohitbaranwal.projectreactor.resilience;
+
+import com.rohitbaranwal.projectreactor.exception.DeadlineExceededException;
+import java.time.Duration;
+import java.util.Optional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+import reactor.util.context.ContextView;
+
+/**
+ * Request deadline carried in the Reactor Context.
+ * The deadline is set once at the entry point with withDeadline, every downstream call wrapped
+ * with bound only gets the time that is left. When the deadline passes the call is cancelled and
+ * fails with DeadlineExceededException, a call made after the deadline is not started at all.
+ */
+public final class Deadline {
+
+  private static final Class<Deadline> CONTEXT_KEY = Deadline.class;
+
+  private final long deadlineNanos;
+
+  private Deadline(long deadlineNanos) {
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  public static Deadline after(Duration timeout) {
+    return new Deadline(System.nanoTime() + timeout.toNanos());
+  }
+
+  public Duration remaining() {
+    return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+  }
+
+  public boolean isExpired() {
+    return deadlineNanos - System.nanoTime() <= 0;
+  }
+
+  private DeadlineExceededException exceeded() {
+    return new DeadlineExceededException("Request deadline exceeded");
+  }
+
+  public static Optional<Deadline> from(ContextView contextView) {
+    return contextView.getOrEmpty(CONTEXT_KEY);
+  }
+
+  //a deadline already in the Context is kept when it is earlier than the new one
+  private static Context withEarliest(Context context, Duration timeout) {
+    var deadline = Deadline.after(timeout);
+    return from(context)
+        .filter(existing -> existing.deadlineNanos - deadline.deadlineNanos <= 0)
+        .map(existing -> context)
+        .orElseGet(() -> context.put(CONTEXT_KEY, deadline));
+  }
+
+  //entry point - the deadline starts when the returned Flux is subscribed
+  public static <T> Flux<T> withDeadline(Flux<T> flux, Duration timeout) {
+    return bound(flux).contextWrite(context -> withEarliest(context, timeout));
+  }
+
+  public static <T> Mono<T> withDeadline(Mono<T> mono, Duration timeout) {
+    return bound(mono).contextWrite(context -> withEarliest(context, timeout));
+  }
+
+  public static <T> Flux<T> bound(Flux<T> flux) {
+    return Flux.deferContextual(contextView -> from(contextView)
+        .map(deadline -> bound(flux, deadline))
+        .orElse(flux));
+  }
+
+  public static <T> Mono<T> bound(Mono<T> mono) {
+    return Mono.deferContextual(contextView -> from(contextView)
+        .map(deadline -> bound(mono, deadline))
+        .orElse(mono));
+  }
+
+  private static <T> Flux<T> bound(Flux<T> flux, Deadline deadline) {
+    if (deadline.isExpired()) {
+      return Flux.error(deadline.exceeded());
+    }
+    //the timeout for the next element (or completion) is always the time left on the deadline,
+    //so this bounds the whole flux and not every element separately
+    Mono<Long> timeLeft = Mono.defer(() -> Mono.delay(deadline.remaining()));
+    return flux.timeout(timeLeft, element -> timeLeft, Flux.defer(() -> Flux.error(deadline.exceeded())));
+  }
+
+  private static <T> Mono<T> bound(Mono<T> mono, Deadline deadline) {
+    if (deadline.isExpired()) {
+      return Mono.error(deadline.exceeded());
+    }
+    return mono.timeout(deadline.remaining(), Mono.defer(() -> Mono.error(deadline.exceeded())));
+  }
+}
@@ -0,0 +1,105 @@
+package com.rohitbaranwal.projectreactor.resilience;
+
+import com.rohitbaranwal.projectreactor.config.HedgeSettings;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Hedged requests to cut tail latency.
+ * The call is started once, if it has not signalled after the hedge delay a second attempt is
+ * started. Whichever attempt signals first wins and the other one is cancelled.
+ * Hedges are capped at maxHedgeRatio of all calls so a slow backend does not get double load.
+ */
+public class Hedger {
+
+  private static final int NO_WINNER = 0;
+  private static final int PRIMARY = 1;
+  private static final int HEDGE = 2;
+
+  private final HedgeSettings settings;
+
+  private final LatencyWindow latencyWindow;
+
+  private final LongAdder calls = new LongAdder();
+
+  private final LongAdder hedgesSent = new LongAdder();
+
+  private final LongAdder hedgesWon = new LongAdder();
+
+  public Hedger(HedgeSettings settings) {
+    this.settings = settings;
+    this.latencyWindow = settings.getPercentile() == null ? null
+        : new LatencyWindow(settings.getLatencySampleSize(), settings.getPercentile());
+  }
+
+  public <T> Flux<T> hedge(Supplier<? extends Flux<T>> call) {
+    return Flux.defer(() -> {
+      calls.increment();
+      var winner = new AtomicInteger(NO_WINNER);
+      long start = System.nanoTime();
+
+      //a primary that is cancelled, because the hedge won or the caller stopped early, still took
+      //at least this long, leaving it out would pull the percentile and with it the delay down
+      Flux<T> primary = Flux.defer(call)
+          .doOnEach(signal -> winner.compareAndSet(NO_WINNER, PRIMARY))
+          .doOnComplete(() -> recordLatency(System.nanoTime() - start))
+          .doOnCancel(() -> recordLatency(System.nanoTime() - start));
+
+      //Flux.never when the hedge is not allowed, an empty flux would count as the first signal
+      Flux<T> hedge = Mono.delay(hedgeDelay())
+          .flatMapMany(tick -> tryAcquireHedge() ? Flux.defer(call) : Flux.<T>never())
+          .doOnEach(signal -> {
+            if (winner.compareAndSet(NO_WINNER, HEDGE)) {
+              hedgesWon.increment();
+            }
+          });
+
+      return Flux.firstWithSignal(primary, hedge);
+    });
+  }
+
+  public <T> Mono<T> hedge(Mono<T> call) {
+    return hedge(() -> call.flux()).next();
+  }
+
+  private boolean tryAcquireHedge() {
+    //hedgesSent can go slightly over the ratio under contention, it is a cap not an exact quota
+    if (hedgesSent.sum() + 1 > settings.getMaxHedgeRatio() * calls.sum()) {
+      return false;
+    }
+    hedgesSent.increment();
+    return true;
+  }
+
+  private void recordLatency(long latencyNanos) {
+    if (latencyWindow != null) {
+      latencyWindow.record(latencyNanos);
+    }
+  }
+
+  Duration hedgeDelay() {
+    if (latencyWindow == null || latencyWindow.percentileNanos() < 0) {
+      return settings.getHedgeDelay();
+    }
+    var percentileDelay = Duration.ofNanos(latencyWindow.percentileNanos());
+    return percentileDelay.compareTo(settings.getMinHedgeDelay()) < 0
+        ? settings.getMinHedgeDelay() : percentileDelay;
+  }
+
+  public long calls() {
+    return calls.sum();
+  }
+
+  public long hedgesSent() {
+    return hedgesSent.sum();
+  }
+
+  //hedges that answered before the first attempt
+  public long hedgesWon() {
+    return hedgesWon.sum();
+  }
+}
@@ -0,0 +1,48 @@
+package com.rohitbaranwal.projectreactor.resilience;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Ring buffer of the most recent latencies with a percentile that is recomputed every
+ * RECOMPUTE_EVERY samples, so reading it is a volatile read and not a sort.
+ * Concurrent writers can overwrite each other's slot, which is fine for a sampled percentile.
+ */
+class LatencyWindow {
+
+  private static final int RECOMPUTE_EVERY = 100;
+
+  private final long[] samples;
+
+  private final double percentile;
+
+  private final AtomicLong count = new AtomicLong();
+
+  private volatile long percentileNanos = -1;
+
+  LatencyWindow(int sampleSize, double percentile) {
+    this.samples = new long[sampleSize];
+    this.percentile = percentile;
+  }
+
+  void record(long latencyNanos) {
+    long index = count.getAndIncrement();
+    samples[(int) (index % samples.length)] = latencyNanos;
+    if (index % RECOMPUTE_EVERY == RECOMPUTE_EVERY - 1) {
+      recompute();
+    }
+  }
+
+  private void recompute() {
+    int filled = (int) Math.min(count.get(), samples.length);
+    long[] sorted = Arrays.copyOf(samples, filled);
+    Arrays.sort(sorted);
+    int rank = (int) Math.ceil(percentile * filled) - 1;
+    percentileNanos = sorted[Math.max(0, Math.min(rank, filled - 1))];
+  }
+
+  //-1 until enough samples were recorded
+  long percentileNanos() {
+    return percentileNanos;
+  }
+}
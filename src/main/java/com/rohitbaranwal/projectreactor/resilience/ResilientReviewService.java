@@ -0,0 +1,98 @@
+package com.rohitbaranwal.projectreactor.resilience;
+
+import com.rohitbaranwal.projectreactor.config.CircuitBreakerSettings;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.service.ReviewService;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import java.time.Duration;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * ReviewService calls guarded by a circuit breaker and a concurrency bulkhead.
+ * While the breaker is open (or the bulkhead is full) calls are rejected without touching
+ * ReviewService, and either fail fast or fall back to an empty review list.
+ */
+@Slf4j
+public class ResilientReviewService {
+
+  private final ReviewService reviewService;
+
+  private final CircuitBreaker circuitBreaker;
+
+  private final Bulkhead bulkhead;
+
+  private final boolean fallbackToEmpty;
+
+  private final Sinks.Many<CircuitBreaker.StateTransition> stateTransitions =
+      Sinks.many().replay().latest();
+
+  public ResilientReviewService(ReviewService reviewService) {
+    this(reviewService, CircuitBreakerSettings.defaults());
+  }
+
+  public ResilientReviewService(ReviewService reviewService, CircuitBreakerSettings settings) {
+    this.reviewService = reviewService;
+    this.fallbackToEmpty = settings.isFallbackToEmpty();
+
+    this.circuitBreaker = CircuitBreaker.of("reviewService", CircuitBreakerConfig.custom()
+        .failureRateThreshold(settings.getFailureRateThreshold())
+        .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+        .slidingWindowSize(settings.getSlidingWindowSize())
+        .minimumNumberOfCalls(settings.getMinimumNumberOfCalls())
+        .waitDurationInOpenState(settings.getWaitDurationInOpenState())
+        .permittedNumberOfCallsInHalfOpenState(settings.getPermittedCallsInHalfOpenState())
+        .build());
+
+    this.bulkhead = Bulkhead.of("reviewService", BulkheadConfig.custom()
+        .maxConcurrentCalls(settings.getMaxConcurrentCalls())
+        .maxWaitDuration(Duration.ZERO)
+        .build());
+
+    circuitBreaker.getEventPublisher().onStateTransition(event -> {
+      log.warn("Review service circuit breaker: {}", event.getStateTransition());
+      //transitions can be published from different threads, busy loop instead of dropping one
+      stateTransitions.emitNext(event.getStateTransition(),
+          Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100)));
+    });
+  }
+
+  public Flux<Review> retrieveReviewsFlux(long movieInfoId) {
+    //defer so a ReviewService that throws instead of returning an error Flux is still recorded
+    Flux<Review> reviewFlux = Flux.defer(() -> reviewService.retrieveReviewsFlux(movieInfoId))
+        .transformDeferred(BulkheadOperator.of(bulkhead))
+        .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+
+    if (!fallbackToEmpty) {
+      return reviewFlux;
+    }
+    return reviewFlux.onErrorResume(
+        ex -> ex instanceof CallNotPermittedException || ex instanceof BulkheadFullException,
+        ex -> Flux.empty());
+  }
+
+  public CircuitBreaker.State getState() {
+    return circuitBreaker.getState();
+  }
+
+  //late subscribers get the last transition first, then every new one
+  public Flux<CircuitBreaker.StateTransition> stateTransitions() {
+    return stateTransitions.asFlux();
+  }
+
+  public CircuitBreaker getCircuitBreaker() {
+    return circuitBreaker;
+  }
+
+  public Bulkhead getBulkhead() {
+    return bulkhead;
+  }
+}
@@ -0,0 +1,95 @@
+package com.rohitbaranwal.projectreactor.resilience;
+
+import com.rohitbaranwal.projectreactor.config.RetryBudgetSettings;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket that limits retries to a share of recent successful calls.
+ * Under a partial outage the bucket runs dry and further retries are denied, so retrying
+ * pipelines cannot multiply the load on a failing service.
+ * bindTo publishes the granted and denied retries and the tokens left to Micrometer.
+ */
+public class RetryBudget implements MeterBinder {
+
+  private static final RetryBudget SHARED = new RetryBudget(RetryBudgetSettings.defaults());
+
+  private final RetryBudgetSettings settings;
+
+  private final LongSupplier nanoClock;
+
+  private final LongAdder retriesGranted = new LongAdder();
+
+  private final LongAdder retriesDenied = new LongAdder();
+
+  private double tokens;
+
+  private long lastRefillNanos;
+
+  public RetryBudget(RetryBudgetSettings settings) {
+    this(settings, System::nanoTime);
+  }
+
+  RetryBudget(RetryBudgetSettings settings, LongSupplier nanoClock) {
+    this.settings = settings;
+    this.nanoClock = nanoClock;
+    this.tokens = Math.min(settings.getMinRetriesPerSecond(), settings.getMaxTokens());
+    this.lastRefillNanos = nanoClock.getAsLong();
+  }
+
+  //process-wide budget used by MovieReactiveService
+  public static RetryBudget shared() {
+    return SHARED;
+  }
+
+  public synchronized void recordSuccess() {
+    tokens = Math.min(settings.getMaxTokens(), tokens + settings.getRetryRatio());
+  }
+
+  public synchronized boolean tryAcquireRetry() {
+    refill();
+    if (tokens >= 1) {
+      tokens -= 1;
+      retriesGranted.increment();
+      return true;
+    }
+    retriesDenied.increment();
+    return false;
+  }
+
+  private void refill() {
+    long now = nanoClock.getAsLong();
+    double elapsedSeconds = (now - lastRefillNanos) / (double) TimeUnit.SECONDS.toNanos(1);
+    lastRefillNanos = now;
+    tokens = Math.min(settings.getMaxTokens(),
+        tokens + elapsedSeconds * settings.getMinRetriesPerSecond());
+  }
+
+  public synchronized double availableTokens() {
+    refill();
+    return tokens;
+  }
+
+  public long retriesGranted() {
+    return retriesGranted.sum();
+  }
+
+  public long retriesDenied() {
+    return retriesDenied.sum();
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    FunctionCounter.builder("retry.budget.granted", this, RetryBudget::retriesGranted)
+        .register(registry);
+    FunctionCounter.builder("retry.budget.denied", this, RetryBudget::retriesDenied)
+        .register(registry);
+    Gauge.builder("retry.budget.tokens", this, RetryBudget::availableTokens)
+        .register(registry);
+  }
+}
@@ -0,0 +1,54 @@
+package com.rohitbaranwal.projectreactor.scheduler;
+
+import com.rohitbaranwal.projectreactor.config.BlockingExecutionMode;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Creates the schedulers that blocking calls are offloaded to.
+ * The project is compiled for Java 17, so virtual threads are looked up at runtime
+ * and are only used when the JVM running the code supports them (Java 21+).
+ */
+@Slf4j
+public final class BlockingSchedulers {
+
+  private BlockingSchedulers() {
+  }
+
+  public static Scheduler create(BlockingExecutionMode mode, int threadCap, int queuedTaskCap,
+      String name) {
+    if (mode == BlockingExecutionMode.VIRTUAL_THREADS) {
+      if (virtualThreadsAvailable()) {
+        return Schedulers.fromExecutorService(newVirtualThreadPerTaskExecutor(), name);
+      }
+      log.warn("Virtual threads are not available on Java {}, using bounded elastic for {}",
+          Runtime.version().feature(), name);
+    }
+    return Schedulers.newBoundedElastic(threadCap, queuedTaskCap, name);
+  }
+
+  public static boolean virtualThreadsAvailable() {
+    //on 19 and 20 virtual threads are a preview feature and fail at runtime without --enable-preview
+    if (Runtime.version().feature() < 21) {
+      return false;
+    }
+    try {
+      Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+      return true;
+    } catch (NoSuchMethodException e) {
+      return false;
+    }
+  }
+
+  private static ExecutorService newVirtualThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor")
+          .invoke(null);
+    } catch (ReflectiveOperationException e) {
+      throw new IllegalStateException("Could not create virtual thread executor", e);
+    }
+  }
+}
@@ -0,0 +1,35 @@
+package com.rohitbaranwal.projectreactor.service;
+
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.repository.ReviewColumns;
+import java.util.Collection;
+import java.util.List;
+import reactor.core.publisher.Flux;
+
+/**
+ * ReviewService reading from ReviewColumns, the reviews are ReviewView flyweights.
+ */
+public class ColumnarReviewService extends ReviewService {
+
+  private final ReviewColumns reviewColumns;
+
+  public ColumnarReviewService(ReviewColumns reviewColumns) {
+    this.reviewColumns = reviewColumns;
+  }
+
+  @Override
+  public List<Review> retrieveReviews(long movieInfoId) {
+    return reviewColumns.reviewList(movieInfoId);
+  }
+
+  @Override
+  public Flux<Review> retrieveReviewsFlux(long movieInfoId) {
+    return reviewColumns.reviews(movieInfoId);
+  }
+
+  @Override
+  public Flux<Review> retrieveReviewsFlux(Collection<Long> movieInfoIds) {
+    return Flux.fromIterable(movieInfoIds)
+        .concatMap(reviewColumns::reviews);
+  }
+}
@@ -1,17 +1,34 @@
 package com.rohitbaranwal.projectreactor.service;
 
-import static com.rohitbaranwal.projectreactor.util.CommonUtil.delay;
-
+import com.rohitbaranwal.projectreactor.latency.SimulatedLatency;
+import java.time.Duration;
 import java.util.List;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public class FluxAndMonoSchedulersService {
 
   static List<String> namesList = List.of("alex", "ben", "chloe");
   static List<String> namesList1 = List.of("adam", "jill", "jack");
 
+  private static final SimulatedLatency latency = SimulatedLatency.fixed(Duration.ofSeconds(1));
+
   private String upperCase(String name) {
-    delay(1000);
+    latency.pause();
     return name.toUpperCase();
   }
 
+  //same delay on a timer, no thread is held while waiting
+  private Mono<String> upperCaseMono(String name) {
+    return latency.delayMono(name::toUpperCase);
+  }
+
+  //both lists in order, the names wait on their timers at the same time so this takes one delay
+  //and not one per name, and no thread is blocked meanwhile
+  public Flux<String> namesFlux_upperCase() {
+    return Flux.fromIterable(namesList)
+        .concatWith(Flux.fromIterable(namesList1))
+        .flatMapSequential(this::upperCaseMono);
+  }
+
 }
@@ -0,0 +1,35 @@
+package com.rohitbaranwal.projectreactor.service;
+
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.store.MappedReviewStore;
+import java.util.Collection;
+import java.util.List;
+import reactor.core.publisher.Flux;
+
+/**
+ * ReviewService reading from a MappedReviewStore, reviews are streamed newest first.
+ */
+public class MappedReviewService extends ReviewService {
+
+  private final MappedReviewStore reviewStore;
+
+  public MappedReviewService(MappedReviewStore reviewStore) {
+    this.reviewStore = reviewStore;
+  }
+
+  @Override
+  public List<Review> retrieveReviews(long movieInfoId) {
+    return reviewStore.reviewList(movieInfoId);
+  }
+
+  @Override
+  public Flux<Review> retrieveReviewsFlux(long movieInfoId) {
+    return reviewStore.reviews(movieInfoId);
+  }
+
+  @Override
+  public Flux<Review> retrieveReviewsFlux(Collection<Long> movieInfoIds) {
+    return Flux.fromIterable(movieInfoIds)
+        .concatMap(reviewStore::reviews);
+  }
+}
@@ -1,8 +1,10 @@
 package com.rohitbaranwal.projectreactor.service;
 
-import static com.rohitbaranwal.projectreactor.util.CommonUtil.delay;
-
 import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.domain.MovieInfoPage;
+import com.rohitbaranwal.projectreactor.latency.SimulatedLatency;
+import com.rohitbaranwal.projectreactor.repository.MovieInfoRepository;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.util.List;
 import reactor.core.publisher.Flux;
@@ -10,30 +12,73 @@ import reactor.core.publisher.Mono;
 
 public class MovieInfoService {
 
-  public Flux<MovieInfo> retrieveMoviesFlux() {
+  //latency of the simulated blocking calls movieList and retrieveMovieUsingId
+  protected final SimulatedLatency latency;
 
-    var movieInfoList = List.of(
-        new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"),
-            LocalDate.parse("2005-06-15")),
-        new MovieInfo(101L, "The Dark Knight", 2008, List.of("Christian Bale", "HeathLedger"),
-            LocalDate.parse("2008-07-18")),
-        new MovieInfo(102L, "Dark Knight Rises", 2008, List.of("Christian Bale", "Tom Hardy"),
-            LocalDate.parse("2012-07-20")));
+  private final MovieInfoRepository movieInfoRepository;
+
+  public MovieInfoService() {
+    this(SimulatedLatency.fixed(Duration.ofSeconds(1)));
+  }
+
+  public MovieInfoService(SimulatedLatency latency) {
+    this(new MovieInfoRepository(defaultMovies()), latency);
+  }
 
-    return Flux.fromIterable(movieInfoList);
+  public MovieInfoService(MovieInfoRepository movieInfoRepository, SimulatedLatency latency) {
+    this.movieInfoRepository = movieInfoRepository;
+    this.latency = latency;
+  }
+
+  public Flux<MovieInfo> retrieveMoviesFlux() {
+
+    return movieInfoRepository.findAll();
   }
 
   public Mono<MovieInfo> retrieveMovieInfoMonoUsingId(long movieId) {
 
-    var movie = new MovieInfo(movieId, "Batman Begins", 2005,
-        List.of("Christian Bale", "Michael Cane"), LocalDate.parse("2005-06-15"));
+    return movieInfoRepository.findById(movieId);
+  }
 
-    return Mono.just(movie);
+  //pageSize movies starting at cursor, 0 for the first page and then the previous nextCursor
+  public Mono<MovieInfoPage> retrieveMoviesPage(long cursor, int pageSize) {
+    return movieInfoRepository.findPage(cursor, pageSize);
+  }
+
+  public Flux<MovieInfo> retrieveMoviesFluxUsingYear(int year) {
+    return movieInfoRepository.findByYear(year);
+  }
+
+  public Flux<MovieInfo> retrieveMoviesFluxUsingCastMember(String castMember) {
+    return movieInfoRepository.findByCastMember(castMember);
   }
 
   public List<MovieInfo> movieList() {
-    delay(1000);
+    latency.pause();
+
+    return movieInfoRepository.findAll().collectList().block();
+  }
 
+  //null when there is no movie with this id
+  public MovieInfo retrieveMovieUsingId(long movieId) {
+    latency.pause();
+    return movieInfoRepository.get(movieId);
+  }
+
+  //non blocking versions of movieList and retrieveMovieUsingId, same latency on a timer
+  public Flux<MovieInfo> movieListFlux() {
+    return latency.delayFlux(retrieveMoviesFlux());
+  }
+
+  public Mono<MovieInfo> retrieveMovieUsingIdMono(long movieId) {
+    return latency.delayMono(retrieveMovieInfoMonoUsingId(movieId));
+  }
+
+  public MovieInfoRepository getMovieInfoRepository() {
+    return movieInfoRepository;
+  }
+
+  private static List<MovieInfo> defaultMovies() {
     return List.of(
         new MovieInfo(100L, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"),
             LocalDate.parse("2005-06-15")),
@@ -43,10 +88,4 @@ public class MovieInfoService {
             LocalDate.parse("2012-07-20")));
   }
 
-  public MovieInfo retrieveMovieUsingId(long movieId) {
-    delay(1000);
-    return new MovieInfo(movieId, "Batman Begins", 2005, List.of("Christian Bale", "Michael Cane"),
-        LocalDate.parse("2005-06-15"));
-  }
-
 }
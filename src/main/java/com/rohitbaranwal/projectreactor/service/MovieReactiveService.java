@@ -1,19 +1,58 @@
 package com.rohitbaranwal.projectreactor.service;
 
+import static com.rohitbaranwal.projectreactor.util.SignalTracing.traceFlux;
+import static com.rohitbaranwal.projectreactor.util.SignalTracing.traceMono;
+
+import com.rohitbaranwal.projectreactor.cache.MovieCache;
+import com.rohitbaranwal.projectreactor.cache.SingleFlight;
+import com.rohitbaranwal.projectreactor.changes.MovieChangeStream;
+import com.rohitbaranwal.projectreactor.config.CircuitBreakerSettings;
+import com.rohitbaranwal.projectreactor.config.EnrichmentSettings;
+import com.rohitbaranwal.projectreactor.config.HedgeSettings;
+import com.rohitbaranwal.projectreactor.config.PaginationSettings;
+import com.rohitbaranwal.projectreactor.config.ReviewBatchSettings;
+import com.rohitbaranwal.projectreactor.config.ScatterGatherSettings;
 import com.rohitbaranwal.projectreactor.domain.Movie;
 import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.domain.MovieInfoPage;
+import com.rohitbaranwal.projectreactor.domain.MoviePage;
+import com.rohitbaranwal.projectreactor.domain.MoviePart;
+import com.rohitbaranwal.projectreactor.domain.RatingSummary;
+import com.rohitbaranwal.projectreactor.domain.Revenue;
 import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.enrichment.ReviewEnricher;
 import com.rohitbaranwal.projectreactor.exception.MovieException;
 import com.rohitbaranwal.projectreactor.exception.NetworkException;
 import com.rohitbaranwal.projectreactor.exception.ServiceException;
+import com.rohitbaranwal.projectreactor.metrics.PipelineMetrics;
+import com.rohitbaranwal.projectreactor.resilience.BudgetedRetry;
+import com.rohitbaranwal.projectreactor.resilience.Deadline;
+import com.rohitbaranwal.projectreactor.resilience.Hedger;
+import com.rohitbaranwal.projectreactor.resilience.ResilientReviewService;
+import com.rohitbaranwal.projectreactor.resilience.RetryBudget;
+import com.rohitbaranwal.projectreactor.stats.RatingAccumulator;
+import com.rohitbaranwal.projectreactor.stats.StripedRatingAccumulator;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import lombok.extern.slf4j.Slf4j;
-import reactor.core.Exceptions;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.function.Tuple2;
+import reactor.util.function.Tuples;
 import reactor.util.retry.Retry;
-import reactor.util.retry.RetryBackoffSpec;
 
 @Slf4j
 public class MovieReactiveService {
@@ -22,37 +61,367 @@ public class MovieReactiveService {
 
   private ReviewService reviewService;
 
+  private ReactiveRevenueService revenueService;
+
+  private ResilientReviewService resilientReviewService;
+
+  private RetryBudget retryBudget = RetryBudget.shared();
+
+  private Hedger reviewHedger = new Hedger(HedgeSettings.defaults());
+
+  //global registry by default, MovieServiceConfig sets the Spring Boot registry
+  private PipelineMetrics pipelineMetrics = new PipelineMetrics(Metrics.globalRegistry);
+
+  private final SingleFlight<Long, Movie> movieFlights = new SingleFlight<>();
+
+  //assembled movies by movieId, loaded with getMovieById
+  private final MovieCache movieCache = new MovieCache(this::getMovieById);
+
+  private final SingleFlight<Long, Review> reviewFlights = new SingleFlight<>();
+
+  //MovieServiceConfig sets the stream the repositories and RevenueService report to
+  private MovieChangeStream movieChanges = new MovieChangeStream();
+
+  private final ReviewEnricher reviewEnricher = new ReviewEnricher();
+
+  //uses the process-wide ReactiveRevenueService, so instances built this way share one scheduler
   public MovieReactiveService(MovieInfoService movieInfoService, ReviewService reviewService) {
+    this(movieInfoService, reviewService, ReactiveRevenueService.shared());
+  }
+
+  public MovieReactiveService(MovieInfoService movieInfoService, ReviewService reviewService,
+      ReactiveRevenueService revenueService) {
     this.movieInfoService = movieInfoService;
     this.reviewService = reviewService;
+    this.revenueService = revenueService;
+    this.resilientReviewService = new ResilientReviewService(reviewService);
+  }
+
+  //Downstream calls
+  //every call to MovieInfoService, ReviewService and RevenueService goes through these, when the
+  //request has a Deadline in its Context the call only gets the time that is left
+  private Flux<MovieInfo> retrieveMoviesFlux() {
+    return Deadline.bound(Flux.defer(() -> movieInfoService.retrieveMoviesFlux()));
+  }
+
+  private Mono<MovieInfo> retrieveMovieInfoMonoUsingId(long movieId) {
+    return Deadline.bound(Mono.defer(() -> movieInfoService.retrieveMovieInfoMonoUsingId(movieId)));
+  }
+
+  private Mono<MovieInfoPage> retrieveMoviesPage(long cursor, int pageSize) {
+    return Deadline.bound(Mono.defer(() -> movieInfoService.retrieveMoviesPage(cursor, pageSize)));
+  }
+
+  private Flux<Review> retrieveReviewsFlux(long movieInfoId) {
+    return Deadline.bound(Flux.defer(() -> reviewService.retrieveReviewsFlux(movieInfoId)));
+  }
+
+  private Flux<Review> retrieveReviewsFlux(Collection<Long> movieInfoIds) {
+    return Deadline.bound(Flux.defer(() -> reviewService.retrieveReviewsFlux(movieInfoIds)));
+  }
+
+  //through the circuit breaker and bulkhead, an expired request does not reach them either
+  private Flux<Review> retrieveReviewsFlux_resilient(long movieInfoId) {
+    return Deadline.bound(
+        Flux.defer(() -> resilientReviewService.retrieveReviewsFlux(movieInfoId)));
+  }
+
+  private Mono<Revenue> retrieveRevenueMono(long movieId) {
+    return Deadline.bound(Mono.defer(() -> revenueService.retrieveRevenueMono(movieId)));
   }
 
   public Flux<Movie> getAllMovies() {
-    Flux<MovieInfo> movieInfoFlux = movieInfoService.retrieveMoviesFlux();
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
 
     return movieInfoFlux.flatMap(movieInfo -> {
-      Flux<Review> reviewFlux = reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId());
+      Flux<Review> reviewFlux = retrieveReviewsFlux(movieInfo.getMovieInfoId());
       //I want single list of review for Movie Object
       Mono<List<Review>> monoReviewList = reviewFlux.collectList();
       return monoReviewList.map(reviewList -> new Movie(movieInfo, reviewList));
-    }).log();
+    }).transform(pipelineMetrics.instrumentFlux("getAllMovies"))
+        .transform(traceFlux("getAllMovies"));
+  }
+
+  public Flux<Movie> getAllMovies_batched() {
+    return getAllMovies_batched(ReviewBatchSettings.defaults());
+  }
+
+  //Batched review loading
+  //instead of one review lookup per movie, ids are collected by count (batchSize) or time (maxWait)
+  //and a single lookup is sent per batch, results are then routed back to the right Movie
+  public Flux<Movie> getAllMovies_batched(ReviewBatchSettings batchSettings) {
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
+
+    return movieInfoFlux
+        .bufferTimeout(batchSettings.getBatchSize(), batchSettings.getMaxWait())
+        //flatMapSequential keeps the catalog order while still running batches concurrently
+        .flatMapSequential(this::toMovies, batchSettings.getMaxBatchesInFlight())
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_batched"))
+        .transform(traceFlux("getAllMovies_batched"));
   }
 
-  private static RetryBackoffSpec getRetryBackOff() {
-    return Retry.backoff(3, Duration.ofMillis(500L))
-        .filter(e -> e instanceof MovieException) //retry will happen when MovieException is thrown
-        .onRetryExhaustedThrow(
-            (retryBackoffSpec, retrySignal) -> Exceptions.propagate(retrySignal.failure()));
+  private Flux<Movie> toMovies(List<MovieInfo> movieInfoBatch) {
+    List<Long> movieInfoIds = movieInfoBatch.stream()
+        .map(MovieInfo::getMovieInfoId)
+        .toList();
+
+    Mono<Map<Long, Collection<Review>>> reviewsById = retrieveReviewsFlux(movieInfoIds)
+        .collectMultimap(Review::getMovieInfoId);
+
+    return reviewsById.flatMapIterable(reviewMap -> movieInfoBatch.stream()
+        .map(movieInfo -> {
+          Collection<Review> reviews = reviewMap.getOrDefault(movieInfo.getMovieInfoId(), List.of());
+          return new Movie(movieInfo, new ArrayList<>(reviews));
+        })
+        .toList());
+  }
+
+  //Rating summaries
+  //reviews are folded into running statistics as they arrive instead of collectList, the Movie
+  //carries a RatingSummary and memory per movie stays the same however many reviews it has
+  public Flux<Movie> getAllMovies_summary() {
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
+
+    return movieInfoFlux.flatMap(movieInfo -> summarizeReviews(movieInfo.getMovieInfoId())
+            .map(ratingSummary -> new Movie(movieInfo, ratingSummary)))
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_summary"))
+        .transform(traceFlux("getAllMovies_summary"));
+  }
+
+  public Mono<Movie> getMovieById_summary(long movieId) {
+    Mono<MovieInfo> monoMovie = retrieveMovieInfoMonoUsingId(movieId);
+    return monoMovie.zipWith(summarizeReviews(movieId), Movie::new)
+        .transform(pipelineMetrics.instrumentMono("getMovieById_summary"))
+        .transform(traceMono("getMovieById_summary"));
+  }
+
+  //Rating summary over the whole catalog
+  //the review lookups of all movies run at the same time and update one shared accumulator from
+  //their own threads, so the updates go through a striped accumulator
+  public Mono<RatingSummary> getCatalogRatingSummary() {
+    return Mono.defer(() -> {
+      StripedRatingAccumulator accumulator = new StripedRatingAccumulator();
+      return retrieveMoviesFlux()
+          .flatMap(movieInfo -> retrieveReviewsFlux(movieInfo.getMovieInfoId())
+              .doOnNext(accumulator::add))
+          .then(Mono.fromCallable(accumulator::summary));
+    }).transform(pipelineMetrics.instrumentMono("getCatalogRatingSummary"))
+        .transform(traceMono("getCatalogRatingSummary"));
+  }
+
+  private Mono<RatingSummary> summarizeReviews(long movieInfoId) {
+    //a single subscriber sees the reviews one at a time, so a plain accumulator is enough here
+    return retrieveReviewsFlux(movieInfoId)
+        .collect(RatingAccumulator::new, RatingAccumulator::add)
+        .map(RatingAccumulator::summary);
+  }
+
+  //Cursor pagination
+  //getAllMovies requests the whole catalog at once, here a page is only read from
+  //MovieInfoService when the subscriber requests it (concatMap without prefetch), so nothing
+  //is fetched ahead of demand. Every page carries the cursor to resume from after a disconnect
+  public Flux<MoviePage> getAllMovies_paged(long cursor) {
+    return getAllMovies_paged(cursor, PaginationSettings.defaults());
+  }
+
+  public Flux<MoviePage> getAllMovies_paged(long cursor, PaginationSettings paginationSettings) {
+    int pageSize = Math.min(paginationSettings.getPageSize(), paginationSettings.getMaxPageSize());
+    if (cursor < 0 || pageSize < 1) {
+      return Flux.error(new IllegalArgumentException(
+          "Invalid cursor " + cursor + " or page size " + pageSize));
+    }
+
+    return Flux.defer(() -> {
+      AtomicLong nextCursor = new AtomicLong(cursor);
+      //generate is asked for the next cursor only after the previous page was emitted.
+      //concatMap subscribes to the next page right away, Mono.just holds it back until the
+      //subscriber requests it
+      return Flux.<Long>generate(sink -> sink.next(nextCursor.get()))
+          .concatMap(pageCursor -> Mono.just(pageCursor)
+              .flatMap(requestedCursor -> retrieveMoviesPage(requestedCursor, pageSize))
+              .flatMap(page -> toMoviePage(page, paginationSettings.getReviewConcurrency()))
+              .doOnNext(page -> nextCursor.set(page.getNextCursor())), 0)
+          .takeUntil(MoviePage::isLast);
+    }).transform(pipelineMetrics.instrumentFlux("getAllMovies_paged"))
+        .transform(traceFlux("getAllMovies_paged"));
+  }
+
+  private Mono<MoviePage> toMoviePage(MovieInfoPage movieInfoPage, int reviewConcurrency) {
+    return Flux.fromIterable(movieInfoPage.getMovieInfos())
+        .flatMapSequential(movieInfo -> retrieveReviewsFlux(movieInfo.getMovieInfoId())
+            .collectList()
+            .map(reviewList -> new Movie(movieInfo, reviewList)), reviewConcurrency)
+        .collectList()
+        .map(movies -> new MoviePage(movies, movieInfoPage.getNextCursor(),
+            movieInfoPage.isLast()));
+  }
+
+  //Parallel review enrichment
+  //tokenizing, sentiment and rating normalization are CPU bound, on the flatMap path they all
+  //run on the thread that delivers the reviews. Here the assembled movies are split over rails
+  //that run on the parallel scheduler, ordered puts them back in catalog order
+  public Flux<Movie> getAllMovies_enriched() {
+    return getAllMovies_enriched(EnrichmentSettings.defaults());
+  }
+
+  public Flux<Movie> getAllMovies_enriched(EnrichmentSettings enrichmentSettings) {
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
+
+    //flatMapSequential so the ordered setting is about the enrichment and not the review lookups
+    return movieInfoFlux.flatMapSequential(movieInfo -> {
+      Flux<Review> reviewFlux = retrieveReviewsFlux(movieInfo.getMovieInfoId());
+      return reviewFlux.collectList().map(reviewList -> new Movie(movieInfo, reviewList));
+    }).transform(movies -> enrich(movies, enrichmentSettings))
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_enriched"))
+        .transform(traceFlux("getAllMovies_enriched"));
+  }
+
+  //the enrichment stage alone, for movies that were already assembled
+  public Flux<Movie> enrich(Flux<Movie> movies, EnrichmentSettings enrichmentSettings) {
+    int rails = enrichmentSettings.getRails();
+    int prefetch = enrichmentSettings.getPrefetch();
+    if (!enrichmentSettings.isOrdered()) {
+      return movies.parallel(rails, prefetch)
+          .runOn(Schedulers.parallel(), prefetch)
+          .map(reviewEnricher::enrich)
+          .sequential(prefetch);
+    }
+    //every rail sees its movies in catalog order, ordered merges the rails by that index
+    return movies.index()
+        .parallel(rails, prefetch)
+        .runOn(Schedulers.parallel(), prefetch)
+        .map(indexed -> Tuples.of(indexed.getT1(), reviewEnricher.enrich(indexed.getT2())))
+        .ordered(Comparator.comparingLong(Tuple2<Long, Movie>::getT1), prefetch)
+        .map(Tuple2::getT2);
+  }
+
+  //Revenue enrichment
+  //reviews and revenue are fetched at the same time (zip subscribes to both), revenue runs on the
+  //revenue scheduler so the latency per movie is max(reviews, revenue) and not the sum of both
+  public Flux<Movie> getAllMoviesWithRevenue() {
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
+
+    return movieInfoFlux.flatMap(movieInfo -> {
+      Mono<List<Review>> monoReviewList =
+          retrieveReviewsFlux(movieInfo.getMovieInfoId()).collectList();
+      Mono<Revenue> revenueMono = retrieveRevenueMono(movieInfo.getMovieInfoId());
+
+      return Mono.zip(monoReviewList, revenueMono,
+          (reviewList, revenue) -> new Movie(movieInfo, reviewList, revenue));
+    }).transform(pipelineMetrics.instrumentFlux("getAllMoviesWithRevenue"))
+        .transform(traceFlux("getAllMoviesWithRevenue"));
+  }
+
+  public Mono<Movie> getMovieByIdWithRevenue(long movieId) {
+    Mono<MovieInfo> monoMovie = retrieveMovieInfoMonoUsingId(movieId);
+    Mono<List<Review>> monoReviewList = retrieveReviewsFlux(movieId).collectList();
+    Mono<Revenue> revenueMono = retrieveRevenueMono(movieId);
+
+    return Mono.zip(monoMovie, monoReviewList, revenueMono)
+        .map(t3 -> new Movie(t3.getT1(), t3.getT2(), t3.getT3()))
+        .transform(pipelineMetrics.instrumentMono("getMovieByIdWithRevenue"))
+        .transform(traceMono("getMovieByIdWithRevenue"));
+  }
+
+  //Scatter-gather
+  //MovieInfo, reviews and Revenue are requested at the same time, each with its own timeout.
+  //A part that fails or times out falls back to nothing (an empty review list) and is listed
+  //in missingParts. When every required part is in, the others are not waited for
+  public Mono<Movie> getMovieById_scatterGather(long movieId) {
+    return getMovieById_scatterGather(movieId, ScatterGatherSettings.defaults());
+  }
+
+  public Mono<Movie> getMovieById_scatterGather(long movieId,
+      ScatterGatherSettings scatterGatherSettings) {
+    return Mono.defer(() -> {
+      var requiredParts = scatterGatherSettings.getRequiredParts();
+      Sinks.Empty<Void> requiredArrived = Sinks.empty();
+      var requiredPending = new AtomicInteger(requiredParts.size());
+
+      Mono<Optional<MovieInfo>> movieInfo = gather(movieId, MoviePart.MOVIE_INFO,
+          retrieveMovieInfoMonoUsingId(movieId), scatterGatherSettings.getMovieInfoTimeout());
+      Mono<Optional<List<Review>>> reviewList = gather(movieId, MoviePart.REVIEWS,
+          retrieveReviewsFlux(movieId).collectList(), scatterGatherSettings.getReviewsTimeout());
+      Mono<Optional<Revenue>> revenue = gather(movieId, MoviePart.REVENUE,
+          retrieveRevenueMono(movieId), scatterGatherSettings.getRevenueTimeout());
+
+      return Mono.zip(
+              untilRequired(movieInfo, MoviePart.MOVIE_INFO, requiredParts, requiredPending,
+                  requiredArrived),
+              untilRequired(reviewList, MoviePart.REVIEWS, requiredParts, requiredPending,
+                  requiredArrived),
+              untilRequired(revenue, MoviePart.REVENUE, requiredParts, requiredPending,
+                  requiredArrived))
+          .flatMap(parts -> {
+            var missingParts = EnumSet.noneOf(MoviePart.class);
+            if (parts.getT1().isEmpty()) {
+              missingParts.add(MoviePart.MOVIE_INFO);
+            }
+            if (parts.getT2().isEmpty()) {
+              missingParts.add(MoviePart.REVIEWS);
+            }
+            if (parts.getT3().isEmpty()) {
+              missingParts.add(MoviePart.REVENUE);
+            }
+            if (missingParts.stream().anyMatch(requiredParts::contains)) {
+              return Mono.error(new MovieException(
+                  "Movie " + movieId + " is missing required parts " + missingParts));
+            }
+            var movie = new Movie(parts.getT1().orElse(null), parts.getT2().orElse(List.of()),
+                parts.getT3().orElse(null));
+            movie.setMissingParts(missingParts);
+            return Mono.just(movie);
+          });
+    }).transform(pipelineMetrics.instrumentMono("getMovieById_scatterGather"))
+        .transform(traceMono("getMovieById_scatterGather"));
+  }
+
+  //always completes with a value, empty when the source failed, was empty or timed out
+  private <T> Mono<Optional<T>> gather(long movieId, MoviePart part, Mono<T> source,
+      Duration timeout) {
+    return source.timeout(timeout)
+        .map(Optional::of)
+        .defaultIfEmpty(Optional.empty())
+        .onErrorResume(ex -> {
+          log.warn("{} of movie {} is missing: {}", part, movieId, ex.toString());
+          return Mono.just(Optional.empty());
+        });
+  }
+
+  //a required part counts down to requiredArrived, an optional one gives up once it is reached.
+  //The part is subscribed before requiredArrived, so one that answers right away still wins
+  private <T> Mono<Optional<T>> untilRequired(Mono<Optional<T>> part, MoviePart moviePart,
+      Set<MoviePart> requiredParts, AtomicInteger requiredPending,
+      Sinks.Empty<Void> requiredArrived) {
+    if (requiredParts.contains(moviePart)) {
+      return part.doOnSuccess(value -> {
+        if (requiredPending.decrementAndGet() == 0) {
+          requiredArrived.tryEmitEmpty();
+        }
+      });
+    }
+    if (requiredParts.isEmpty()) {
+      return part;
+    }
+    return part.or(requiredArrived.asMono().then(Mono.fromSupplier(Optional::empty)));
+  }
+
+  //retries take a token from the shared retry budget and back off with decorrelated jitter,
+  //when the budget is empty the failure is propagated instead of retried
+  private Retry getRetryBackOff() {
+    return BudgetedRetry.backoff(retryBudget, 3, Duration.ofMillis(500L))
+        .maxBackoff(Duration.ofSeconds(2))
+        .filter(e -> e instanceof MovieException); //retry will happen when MovieException is thrown
   }
 
   //Perform Error Handling
   public Flux<Movie> getAllMovies_1() {
 
-    Flux<MovieInfo> movieInfoFlux = movieInfoService.retrieveMoviesFlux();
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
     return movieInfoFlux.flatMap(movieInfo -> {
           // Allow the reviewService call to fail silently
           Flux<Review> reviewFlux =
-              reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId());
+              retrieveReviewsFlux(movieInfo.getMovieInfoId());
 
           // Collect reviews into a single list
           Mono<List<Review>> monoReviewList = reviewFlux.collectList();
@@ -67,16 +436,17 @@ public class MovieReactiveService {
 //          current thread of execution, effectively signaling an error and preventing further execution of the block.
           throw new MovieException(ex.getMessage());
         })
-        .log();
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_1"))
+        .transform(traceFlux("getAllMovies_1"));
   }
 
   public Flux<Movie> getAllMovies_1_retry() {
 
-    Flux<MovieInfo> movieInfoFlux = movieInfoService.retrieveMoviesFlux();
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
     return movieInfoFlux.flatMap(movieInfo -> {
           // Allow the reviewService call to fail silently
           Flux<Review> reviewFlux =
-              reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId());
+              retrieveReviewsFlux(movieInfo.getMovieInfoId());
 
           // Collect reviews into a single list
           Mono<List<Review>> monoReviewList = reviewFlux.collectList();
@@ -87,9 +457,10 @@ public class MovieReactiveService {
           log.error("Exception is: ", ex);
           throw new MovieException(ex.getMessage());
         })
-        .retry(
-            3) //this means it will try first time if it fails it will retry for 3 more times at max to get correct results
-        .log();
+        //this means it will try first time if it fails it will retry for 3 more times at max to get correct results
+        .transform(pipelineMetrics.countRetries("getAllMovies_1_retry", flux -> flux.retry(3)))
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_1_retry"))
+        .transform(traceFlux("getAllMovies_1_retry"));
   }
 
   public Flux<Movie> getAllMovies_1_retryWhen() {
@@ -97,14 +468,18 @@ public class MovieReactiveService {
     //Retry retryWhen = Retry.backoff(3, Duration.ofMillis(500L)); //DEFAULT IT THROWS RETRYEXHAUSTEDEXCEPTION CAUSING TEST TO FAIL
 
     //TO FIX THIS
-    var retryWhen = Retry.backoff(3, Duration.ofMillis(500L)).onRetryExhaustedThrow(
-        (retryBackoffSpec, retrySignal) -> Exceptions.propagate(retrySignal.failure()));
+    //var retryWhen = Retry.backoff(3, Duration.ofMillis(500L)).onRetryExhaustedThrow(
+    //    (retryBackoffSpec, retrySignal) -> Exceptions.propagate(retrySignal.failure()));
+
+    //BudgetedRetry propagates the original failure too, and only retries while the budget allows
+    var retryWhen = BudgetedRetry.backoff(retryBudget, 3, Duration.ofMillis(500L))
+        .maxBackoff(Duration.ofSeconds(2));
 
-    Flux<MovieInfo> movieInfoFlux = movieInfoService.retrieveMoviesFlux();
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
     return movieInfoFlux.flatMap(movieInfo -> {
           // Allow the reviewService call to fail silently
           Flux<Review> reviewFlux =
-              reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId());
+              retrieveReviewsFlux(movieInfo.getMovieInfoId());
 
           // Collect reviews into a single list
           Mono<List<Review>> monoReviewList = reviewFlux.collectList();
@@ -115,17 +490,20 @@ public class MovieReactiveService {
           log.error("Exception is: ", ex);
           throw new MovieException(ex.getMessage());
         })
-        .retryWhen(retryWhen)
-        .log();
+        .doOnComplete(retryBudget::recordSuccess)
+        .transform(pipelineMetrics.countRetries("getAllMovies_1_retryWhen",
+            flux -> flux.retryWhen(retryWhen)))
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_1_retryWhen"))
+        .transform(traceFlux("getAllMovies_1_retryWhen"));
   }
 
   public Flux<Movie> getAllMovies_1_retryWhen_1() {
 
-    Flux<MovieInfo> movieInfoFlux = movieInfoService.retrieveMoviesFlux();
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
     return movieInfoFlux.flatMap(movieInfo -> {
           // Allow the reviewService call to fail silently
           Flux<Review> reviewFlux =
-              reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId());
+              retrieveReviewsFlux(movieInfo.getMovieInfoId());
 
           // Collect reviews into a single list
           Mono<List<Review>> monoReviewList = reviewFlux.collectList();
@@ -140,17 +518,117 @@ public class MovieReactiveService {
             throw new ServiceException(ex.getMessage());
           }
         })
-        .retryWhen(getRetryBackOff())
-        .log();
+        .doOnComplete(retryBudget::recordSuccess)
+        .transform(pipelineMetrics.countRetries("getAllMovies_1_retryWhen_1",
+            flux -> flux.retryWhen(getRetryBackOff())))
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_1_retryWhen_1"))
+        .transform(traceFlux("getAllMovies_1_retryWhen_1"));
+  }
+
+  //same as getAllMovies_1_retryWhen_1 but review calls go through the circuit breaker and bulkhead,
+  //once the breaker is open a movie gets an empty review list straight away instead of waiting
+  //through the retry backoff against a failing ReviewService
+  public Flux<Movie> getAllMovies_1_circuitBreaker() {
+
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
+    return movieInfoFlux.flatMap(movieInfo -> {
+          Flux<Review> reviewFlux = retrieveReviewsFlux_resilient(movieInfo.getMovieInfoId());
+
+          Mono<List<Review>> monoReviewList = reviewFlux.collectList();
+          return monoReviewList
+              .map(reviewList -> new Movie(movieInfo, reviewList));
+        })
+        .onErrorMap((ex) -> {
+          log.error("Exception is: ", ex);
+          if (ex instanceof NetworkException) {
+            throw new MovieException(ex.getMessage());
+          } else {
+            throw new ServiceException(ex.getMessage());
+          }
+        })
+        .doOnComplete(retryBudget::recordSuccess)
+        .transform(pipelineMetrics.countRetries("getAllMovies_1_circuitBreaker",
+            flux -> flux.retryWhen(getRetryBackOff())))
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_1_circuitBreaker"))
+        .transform(traceFlux("getAllMovies_1_circuitBreaker"));
+  }
+
+  //Hedged review lookups
+  //a second review lookup is sent when the first one is slow, the first to answer wins
+  public Flux<Movie> getAllMovies_hedged() {
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
+
+    return movieInfoFlux.flatMap(movieInfo -> {
+      Mono<List<Review>> monoReviewList =
+          retrieveReviewsFlux_hedged(movieInfo.getMovieInfoId()).collectList();
+      return monoReviewList.map(reviewList -> new Movie(movieInfo, reviewList));
+    }).transform(pipelineMetrics.instrumentFlux("getAllMovies_hedged"))
+        .transform(traceFlux("getAllMovies_hedged"));
+  }
+
+  public Mono<Movie> getMovieById_hedged(long movieId) {
+    Mono<MovieInfo> monoMovie = retrieveMovieInfoMonoUsingId(movieId);
+    Mono<List<Review>> monoReviewList = retrieveReviewsFlux_hedged(movieId).collectList();
+    return monoMovie.zipWith(monoReviewList, Movie::new)
+        .transform(pipelineMetrics.instrumentMono("getMovieById_hedged"))
+        .transform(traceMono("getMovieById_hedged"));
+  }
+
+  private Flux<Review> retrieveReviewsFlux_hedged(long movieInfoId) {
+    return reviewHedger.hedge(() -> retrieveReviewsFlux(movieInfoId));
+  }
+
+  public void setMeterRegistry(MeterRegistry meterRegistry) {
+    this.pipelineMetrics = new PipelineMetrics(meterRegistry);
+  }
+
+  public void setMovieChangeStream(MovieChangeStream movieChanges) {
+    this.movieChanges = movieChanges;
+  }
+
+  //replaces the breaker and bulkhead, their state and metrics start over
+  public void setCircuitBreakerSettings(CircuitBreakerSettings circuitBreakerSettings) {
+    this.resilientReviewService = new ResilientReviewService(reviewService, circuitBreakerSettings);
+  }
+
+  public void setHedgeSettings(HedgeSettings hedgeSettings) {
+    this.reviewHedger = new Hedger(hedgeSettings);
+  }
+
+  public Hedger getReviewHedger() {
+    return reviewHedger;
+  }
+
+  public RetryBudget getRetryBudget() {
+    return retryBudget;
+  }
+
+  public ResilientReviewService getResilientReviewService() {
+    return resilientReviewService;
+  }
+
+  //Change stream
+  //getAllMovies_1_repeat assembles the whole catalog again to pick up changes, here it is
+  //assembled once and every review added, MovieInfo edited or Revenue updated after that
+  //comes as a MovieDelta that only touches the changed Movie
+  public Flux<Movie> getAllMovies_changes() {
+    return movieChanges.materialize(getAllMovies())
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_changes"))
+        .transform(traceFlux("getAllMovies_changes"));
+  }
+
+  //where changes to movies are reported, see getAllMovies_changes
+  public MovieChangeStream getMovieChanges() {
+    return movieChanges;
   }
 
   public Flux<Movie> getAllMovies_1_repeat() {
 
-    Flux<MovieInfo> movieInfoFlux = movieInfoService.retrieveMoviesFlux();
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
     return movieInfoFlux.flatMap(movieInfo -> {
           // Allow the reviewService call to fail silently
           Flux<Review> reviewFlux =
-              reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId());
+              retrieveReviewsFlux(movieInfo.getMovieInfoId());
 
           // Collect reviews into a single list
           Mono<List<Review>> monoReviewList = reviewFlux.collectList();
@@ -165,18 +643,21 @@ public class MovieReactiveService {
             throw new ServiceException(ex.getMessage());
           }
         })
-        .retryWhen(getRetryBackOff())
+        .doOnComplete(retryBudget::recordSuccess)
+        .transform(pipelineMetrics.countRetries("getAllMovies_1_repeat",
+            flux -> flux.retryWhen(getRetryBackOff())))
         .repeat() //subscribes and then keeps on continuing
-        .log();
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_1_repeat"))
+        .transform(traceFlux("getAllMovies_1_repeat"));
   }
 
   public Flux<Movie> getAllMovies_1_repeat_n(Long n) {
 
-    Flux<MovieInfo> movieInfoFlux = movieInfoService.retrieveMoviesFlux();
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux();
     return movieInfoFlux.flatMap(movieInfo -> {
           // Allow the reviewService call to fail silently
           Flux<Review> reviewFlux =
-              reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId());
+              retrieveReviewsFlux(movieInfo.getMovieInfoId());
 
           // Collect reviews into a single list
           Mono<List<Review>> monoReviewList = reviewFlux.collectList();
@@ -191,32 +672,36 @@ public class MovieReactiveService {
             throw new ServiceException(ex.getMessage());
           }
         })
-        .retryWhen(getRetryBackOff())
+        .doOnComplete(retryBudget::recordSuccess)
+        .transform(pipelineMetrics.countRetries("getAllMovies_1_repeat_n",
+            flux -> flux.retryWhen(getRetryBackOff())))
         .repeat(n) //subscribes and then keeps on continuing till n times
-        .log();
+        .transform(pipelineMetrics.instrumentFlux("getAllMovies_1_repeat_n"))
+        .transform(traceFlux("getAllMovies_1_repeat_n"));
   }
 
 
   //Perform Error Handling
   public Flux<Movie> getAllMovies_2() {
     // Throw an error when the movieInfoService call fails
-    Flux<MovieInfo> movieInfoFlux = movieInfoService.retrieveMoviesFlux()
+    Flux<MovieInfo> movieInfoFlux = retrieveMoviesFlux()
         .onErrorMap(
             throwable -> new RuntimeException("Failed to retrieve movie information", throwable));
 
     return movieInfoFlux.flatMap(movieInfo -> {
       // Allow the reviewService call to fail silently
-      Flux<Review> reviewFlux = reviewService.retrieveReviewsFlux(movieInfo.getMovieInfoId())
+      Flux<Review> reviewFlux = retrieveReviewsFlux(movieInfo.getMovieInfoId())
           .onErrorResume(throwable -> Flux.empty());
 
       // Collect reviews into a single list
       Mono<List<Review>> monoReviewList = reviewFlux.collectList();
       return monoReviewList.map(reviewList -> new Movie(movieInfo, reviewList));
-    }).log();
+    }).transform(pipelineMetrics.instrumentFlux("getAllMovies_2"))
+        .transform(traceFlux("getAllMovies_2"));
   }
 
   public Mono<Movie> getMovieById(long movieId) {
-    Mono<MovieInfo> monoMovie = movieInfoService.retrieveMovieInfoMonoUsingId(movieId);
+    Mono<MovieInfo> monoMovie = retrieveMovieInfoMonoUsingId(movieId);
 
 //    either use this
 //    return monoMovie.flatMap(movieInfo -> {
@@ -228,10 +713,51 @@ public class MovieReactiveService {
 //    }).log();
 
     //since its mono
-    Flux<Review> reviewFlux = reviewService.retrieveReviewsFlux(movieId);
+    Flux<Review> reviewFlux = retrieveReviewsFlux(movieId);
     //I want single list of review for Movie Object
     Mono<List<Review>> monoReviewList = reviewFlux.collectList();
-    return monoMovie.zipWith(monoReviewList, (movieInfo, reviewList) -> new Movie(movieInfo, reviewList)).log();
+    return monoMovie.zipWith(monoReviewList, (movieInfo, reviewList) -> new Movie(movieInfo, reviewList))
+        .transform(pipelineMetrics.instrumentMono("getMovieById"))
+        .transform(traceMono("getMovieById"));
+
+  }
+
+  //Deadline
+  //the whole lookup including the MovieInfoService and ReviewService calls has to finish within timeout
+  public Mono<Movie> getMovieById(long movieId, Duration timeout) {
+    return Deadline.withDeadline(getMovieById(movieId), timeout);
+  }
+
+  //Cached lookup
+  //a hit is served from MovieCache without calling MovieInfoService or ReviewService, a hot entry
+  //is reloaded in the background after refreshAfter while the cached Movie is still returned
+  public Mono<Movie> getMovieById_cached(long movieId) {
+    return movieCache.getMovieById(movieId)
+        .transform(pipelineMetrics.instrumentMono("getMovieById_cached"))
+        .transform(traceMono("getMovieById_cached"));
+  }
+
+  public MovieCache getMovieCache() {
+    return movieCache;
+  }
+
+  //Request coalescing
+  //concurrent lookups of the same movieId share one pending call to MovieInfoService and ReviewService
+  public Mono<Movie> getMovieById_coalesced(long movieId) {
+    return movieFlights.execute(movieId, () -> {
+      Mono<MovieInfo> monoMovie = retrieveMovieInfoMonoUsingId(movieId);
+      Mono<List<Review>> monoReviewList = retrieveReviewsFlux_coalesced(movieId).collectList();
+      return monoMovie.zipWith(monoReviewList, Movie::new);
+    }).transform(pipelineMetrics.instrumentMono("getMovieById_coalesced"))
+        .transform(traceMono("getMovieById_coalesced"));
+  }
+
+  public Flux<Review> retrieveReviewsFlux_coalesced(long movieInfoId) {
+    return reviewFlights.executeMany(movieInfoId,
+        () -> retrieveReviewsFlux(movieInfoId));
+  }
 
+  public long getCoalescedCalls() {
+    return movieFlights.coalescedCalls() + reviewFlights.coalescedCalls();
   }
 }
@@ -0,0 +1,47 @@
+package com.rohitbaranwal.projectreactor.service;
+
+import com.rohitbaranwal.projectreactor.config.BlockingExecutionMode;
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.scheduler.BlockingSchedulers;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Reactive adapter for the blocking MovieInfoService methods (movieList, retrieveMovieUsingId).
+ * Calls are run on a scheduler picked by BlockingExecutionMode so the caller thread never blocks.
+ */
+public class ReactiveMovieInfoService {
+
+  private final MovieInfoService movieInfoService;
+
+  private final Scheduler movieInfoScheduler;
+
+  public ReactiveMovieInfoService(MovieInfoService movieInfoService) {
+    this(movieInfoService, BlockingExecutionMode.BOUNDED_ELASTIC);
+  }
+
+  public ReactiveMovieInfoService(MovieInfoService movieInfoService,
+      BlockingExecutionMode executionMode) {
+    this.movieInfoService = movieInfoService;
+    this.movieInfoScheduler = BlockingSchedulers.create(executionMode,
+        Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE, Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+        "movieInfo");
+  }
+
+  public Flux<MovieInfo> movieListFlux() {
+    return Mono.fromCallable(movieInfoService::movieList)
+        .subscribeOn(movieInfoScheduler)
+        .flatMapIterable(movieInfoList -> movieInfoList);
+  }
+
+  public Mono<MovieInfo> retrieveMovieMonoUsingId(long movieId) {
+    return Mono.fromCallable(() -> movieInfoService.retrieveMovieUsingId(movieId))
+        .subscribeOn(movieInfoScheduler);
+  }
+
+  public void dispose() {
+    movieInfoScheduler.dispose();
+  }
+}
@@ -0,0 +1,61 @@
+package com.rohitbaranwal.projectreactor.service;
+
+import com.rohitbaranwal.projectreactor.config.RevenueSettings;
+import com.rohitbaranwal.projectreactor.domain.Revenue;
+import com.rohitbaranwal.projectreactor.scheduler.BlockingSchedulers;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Reactive adapter for the blocking RevenueService.
+ * getRevenue is run on a dedicated scheduler so the caller thread never blocks. In BOUNDED_ELASTIC
+ * mode the scheduler thread cap limits how many revenue calls run at once, in VIRTUAL_THREADS mode
+ * every call gets its own virtual thread.
+ */
+public class ReactiveRevenueService {
+
+  private final RevenueService revenueService;
+
+  private final Scheduler revenueScheduler;
+
+  //the shared adapter lives as long as the process, dispose() leaves it running
+  private boolean disposable = true;
+
+  public ReactiveRevenueService(RevenueService revenueService) {
+    this(revenueService, RevenueSettings.defaults());
+  }
+
+  public ReactiveRevenueService(RevenueService revenueService, RevenueSettings revenueSettings) {
+    this.revenueService = revenueService;
+    this.revenueScheduler = BlockingSchedulers.create(revenueSettings.getExecutionMode(),
+        revenueSettings.getMaxConcurrency(), revenueSettings.getQueuedTaskCap(), "revenue");
+  }
+
+  //process-wide adapter used when a MovieReactiveService is not given one, created on first use so
+  //every such instance shares one scheduler and the maxConcurrency cap applies to all of them
+  public static ReactiveRevenueService shared() {
+    return SharedHolder.SHARED;
+  }
+
+  public Mono<Revenue> retrieveRevenueMono(long movieId) {
+    return Mono.fromCallable(() -> revenueService.getRevenue(movieId))
+        .subscribeOn(revenueScheduler);
+  }
+
+  public void dispose() {
+    if (disposable) {
+      revenueScheduler.dispose();
+    }
+  }
+
+  private static final class SharedHolder {
+
+    private static final ReactiveRevenueService SHARED = createShared();
+
+    private static ReactiveRevenueService createShared() {
+      var revenueService = new ReactiveRevenueService(new RevenueService());
+      revenueService.disposable = false;
+      return revenueService;
+    }
+  }
+}
@@ -1,18 +1,62 @@
 package com.rohitbaranwal.projectreactor.service;
 
-import static com.rohitbaranwal.projectreactor.util.CommonUtil.delay;
-
+import com.rohitbaranwal.projectreactor.changes.MovieChangeStream;
 import com.rohitbaranwal.projectreactor.domain.Revenue;
+import com.rohitbaranwal.projectreactor.latency.SimulatedLatency;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import reactor.core.publisher.Mono;
 
 public class RevenueService {
 
+  // simulating a network call ( DB or Rest call)
+  private final SimulatedLatency latency;
+
+  //revenue set with updateRevenue, the other movies get the default figures
+  private final ConcurrentHashMap<Long, Revenue> updated = new ConcurrentHashMap<>();
+
+  private volatile MovieChangeStream movieChanges;
+
+  public RevenueService() {
+    this(SimulatedLatency.fixed(Duration.ofSeconds(1)));
+  }
+
+  public RevenueService(SimulatedLatency latency) {
+    this.latency = latency;
+  }
+
   public Revenue getRevenue(Long movieId){
-    delay(1000); // simulating a network call ( DB or Rest call)
+    latency.pause();
+    return revenue(movieId);
+  }
+
+  //same call without blocking a thread while waiting
+  public Mono<Revenue> getRevenueMono(Long movieId) {
+    return latency.delayMono(() -> revenue(movieId));
+  }
+
+  //reported to the MovieChangeStream as a REVENUE delta when one is set
+  public void updateRevenue(Revenue revenue) {
+    updated.put(revenue.getMovieInfoId(), revenue);
+    var changes = movieChanges;
+    if (changes != null) {
+      changes.revenueUpdated(revenue);
+    }
+  }
+
+  public void setMovieChangeStream(MovieChangeStream movieChanges) {
+    this.movieChanges = movieChanges;
+  }
+
+  private Revenue revenue(Long movieId) {
+    var revenue = updated.get(movieId);
+    if (revenue != null) {
+      return revenue;
+    }
     return Revenue.builder()
         .movieInfoId(movieId)
         .budget(1000000)
         .boxOffice(5000000)
         .build();
-
   }
-}
\ No newline at end of file
+}
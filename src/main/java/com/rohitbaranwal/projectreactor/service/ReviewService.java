@@ -3,6 +3,7 @@ package com.rohitbaranwal.projectreactor.service;
 import com.rohitbaranwal.projectreactor.domain.Review;
 import reactor.core.publisher.Flux;
 
+import java.util.Collection;
 import java.util.List;
 
 public class ReviewService {
@@ -20,4 +21,11 @@ public class ReviewService {
     return Flux.fromIterable(reviewsList);
   }
 
+  //one lookup for many movies, reviews of every requested movieInfoId are returned in a single flux
+  public Flux<Review> retrieveReviewsFlux(Collection<Long> movieInfoIds){
+
+    return Flux.fromIterable(movieInfoIds)
+        .concatMapIterable(this::retrieveReviews);
+  }
+
 }
@@ -0,0 +1,73 @@
+package com.rohitbaranwal.projectreactor.service;
+
+import com.rohitbaranwal.projectreactor.catalog.SyntheticCatalog;
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.domain.MovieInfoPage;
+import com.rohitbaranwal.projectreactor.latency.SimulatedLatency;
+import java.util.List;
+import java.util.stream.LongStream;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * MovieInfoService backed by a SyntheticCatalog instead of the three hard-coded movies.
+ * Every call gets the given latency, reactive calls wait on a timer and blocking calls pause.
+ */
+public class SyntheticMovieInfoService extends MovieInfoService {
+
+  private final SyntheticCatalog catalog;
+
+  public SyntheticMovieInfoService(SyntheticCatalog catalog) {
+    this(catalog, SimulatedLatency.none());
+  }
+
+  public SyntheticMovieInfoService(SyntheticCatalog catalog, SimulatedLatency latency) {
+    super(latency);
+    this.catalog = catalog;
+  }
+
+  @Override
+  public Flux<MovieInfo> retrieveMoviesFlux() {
+    return latency.delayFlux(catalog.movieInfoFlux());
+  }
+
+  @Override
+  public Mono<MovieInfo> retrieveMovieInfoMonoUsingId(long movieId) {
+    return latency.delayMono(() -> catalog.movieInfo(movieId));
+  }
+
+  //the cursor is the offset of the movie id from FIRST_MOVIE_ID
+  @Override
+  public Mono<MovieInfoPage> retrieveMoviesPage(long cursor, int pageSize) {
+    return latency.delayMono(() -> {
+      long movieCount = catalog.movieCount();
+      long end = Math.min(movieCount, cursor + pageSize);
+      List<MovieInfo> movieInfos = LongStream.range(Math.min(cursor, movieCount), end)
+          .mapToObj(offset -> catalog.movieInfo(SyntheticCatalog.FIRST_MOVIE_ID + offset))
+          .toList();
+      return new MovieInfoPage(movieInfos, end, end >= movieCount);
+    });
+  }
+
+  @Override
+  public List<MovieInfo> movieList() {
+    latency.pause();
+    return catalog.movieInfoFlux().collectList().block();
+  }
+
+  @Override
+  public MovieInfo retrieveMovieUsingId(long movieId) {
+    latency.pause();
+    return catalog.movieInfo(movieId);
+  }
+
+  @Override
+  public Flux<MovieInfo> movieListFlux() {
+    return retrieveMoviesFlux();
+  }
+
+  @Override
+  public Mono<MovieInfo> retrieveMovieUsingIdMono(long movieId) {
+    return retrieveMovieInfoMonoUsingId(movieId);
+  }
+}
@@ -0,0 +1,46 @@
+package com.rohitbaranwal.projectreactor.service;
+
+import com.rohitbaranwal.projectreactor.catalog.SyntheticCatalog;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.latency.SimulatedLatency;
+import java.util.Collection;
+import java.util.List;
+import reactor.core.publisher.Flux;
+
+/**
+ * ReviewService backed by a SyntheticCatalog, the flux methods generate reviews on demand.
+ * Every call gets the given latency, reactive calls wait on a timer and blocking calls pause.
+ */
+public class SyntheticReviewService extends ReviewService {
+
+  private final SyntheticCatalog catalog;
+
+  private final SimulatedLatency latency;
+
+  public SyntheticReviewService(SyntheticCatalog catalog) {
+    this(catalog, SimulatedLatency.none());
+  }
+
+  public SyntheticReviewService(SyntheticCatalog catalog, SimulatedLatency latency) {
+    this.catalog = catalog;
+    this.latency = latency;
+  }
+
+  @Override
+  public List<Review> retrieveReviews(long movieInfoId) {
+    latency.pause();
+    return catalog.reviews(movieInfoId);
+  }
+
+  @Override
+  public Flux<Review> retrieveReviewsFlux(long movieInfoId) {
+    return latency.delayFlux(catalog.reviewFlux(movieInfoId));
+  }
+
+  //one call for the whole batch, so one latency
+  @Override
+  public Flux<Review> retrieveReviewsFlux(Collection<Long> movieInfoIds) {
+    return latency.delayFlux(Flux.fromIterable(movieInfoIds)
+        .concatMap(catalog::reviewFlux));
+  }
+}
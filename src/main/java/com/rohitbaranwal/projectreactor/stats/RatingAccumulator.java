@@ -0,0 +1,83 @@
+package com.rohitbaranwal.projectreactor.stats;
+
+import com.rohitbaranwal.projectreactor.domain.RatingSummary;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.util.Arrays;
+
+/**
+ * Running rating statistics (Welford's algorithm) that take constant memory no matter how many
+ * ratings are added. Not thread safe, a single subscriber folding a Flux is the intended use,
+ * see {@link StripedRatingAccumulator} for concurrent writers.
+ */
+public class RatingAccumulator {
+
+  private long count;
+
+  private double mean;
+
+  //sum of squared distances from the mean
+  private double m2;
+
+  private double min = Double.POSITIVE_INFINITY;
+
+  private double max = Double.NEGATIVE_INFINITY;
+
+  private final long[] histogram = new long[RatingSummary.BUCKETS];
+
+  //reviews without a rating are skipped
+  public RatingAccumulator add(Review review) {
+    Double rating = review.getRating();
+    if (rating != null) {
+      add(rating.doubleValue());
+    }
+    return this;
+  }
+
+  public RatingAccumulator add(double rating) {
+    if (Double.isNaN(rating)) {
+      return this;
+    }
+    count++;
+    double delta = rating - mean;
+    mean += delta / count;
+    m2 += delta * (rating - mean);
+    min = Math.min(min, rating);
+    max = Math.max(max, rating);
+    histogram[bucket(rating)]++;
+    return this;
+  }
+
+  //merges other into this one (Chan et al.), the result is the same as adding both inputs here
+  public RatingAccumulator combine(RatingAccumulator other) {
+    if (other.count == 0) {
+      return this;
+    }
+    long total = count + other.count;
+    double delta = other.mean - mean;
+    mean += delta * other.count / total;
+    m2 += other.m2 + delta * delta * count * other.count / total;
+    count = total;
+    min = Math.min(min, other.min);
+    max = Math.max(max, other.max);
+    for (int i = 0; i < histogram.length; i++) {
+      histogram[i] += other.histogram[i];
+    }
+    return this;
+  }
+
+  public long count() {
+    return count;
+  }
+
+  public RatingSummary summary() {
+    if (count == 0) {
+      return RatingSummary.empty();
+    }
+    return new RatingSummary(count, mean, min, max, m2 / count,
+        Arrays.copyOf(histogram, histogram.length));
+  }
+
+  static int bucket(double rating) {
+    return (int) Math.max(0, Math.min(RatingSummary.BUCKETS - 1, Math.floor(rating)));
+  }
+}
@@ -0,0 +1,64 @@
+package com.rohitbaranwal.projectreactor.stats;
+
+import com.rohitbaranwal.projectreactor.domain.RatingSummary;
+import com.rohitbaranwal.projectreactor.domain.Review;
+
+/**
+ * Thread safe {@link RatingAccumulator}, split into stripes picked by the writing thread so
+ * concurrent writers mostly lock different stripes (like LongAdder). The stripes are only
+ * combined when a summary is read.
+ */
+public class StripedRatingAccumulator {
+
+  private final RatingAccumulator[] stripes;
+
+  private final int mask;
+
+  public StripedRatingAccumulator() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  public StripedRatingAccumulator(int minStripes) {
+    int size = Integer.highestOneBit(Math.max(1, minStripes - 1)) << 1;
+    this.stripes = new RatingAccumulator[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new RatingAccumulator();
+    }
+    this.mask = size - 1;
+  }
+
+  public void add(Review review) {
+    RatingAccumulator stripe = stripe();
+    synchronized (stripe) {
+      stripe.add(review);
+    }
+  }
+
+  public void add(double rating) {
+    RatingAccumulator stripe = stripe();
+    synchronized (stripe) {
+      stripe.add(rating);
+    }
+  }
+
+  //a consistent view of each stripe, writes that race with this call may or may not be included
+  public RatingSummary summary() {
+    RatingAccumulator total = new RatingAccumulator();
+    for (RatingAccumulator stripe : stripes) {
+      synchronized (stripe) {
+        total.combine(stripe);
+      }
+    }
+    return total.summary();
+  }
+
+  int stripeCount() {
+    return stripes.length;
+  }
+
+  private RatingAccumulator stripe() {
+    //spread sequential thread ids so neighbouring threads do not share a stripe pattern
+    long h = Thread.currentThread().getId() * 0x9E3779B97F4A7C15L;
+    return stripes[(int) (h >>> 32) & mask];
+  }
+}
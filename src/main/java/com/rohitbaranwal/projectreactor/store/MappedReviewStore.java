@@ -0,0 +1,472 @@
+package com.rohitbaranwal.projectreactor.store;
+
+import static com.rohitbaranwal.projectreactor.store.RecordFormat.NO_RECORD;
+
+import com.rohitbaranwal.projectreactor.changes.MovieChangeStream;
+import com.rohitbaranwal.projectreactor.config.ReviewStoreSettings;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Flux;
+
+/**
+ * Persistent, append-only review store on memory mapped segment files, reviews stay off heap.
+ * Every record points back to the previous record of the same movie, so the in memory index
+ * only holds the newest record and the count per movieInfoId, and reviews(movieInfoId) walks the
+ * chain newest first straight from the mapped buffers, one record per request.
+ * One writer at a time (appends, deletes and compaction are synchronized), readers never lock.
+ * The index is not persisted, open() rebuilds it from the segments and cuts the log at the first
+ * torn record, so a crash loses at most the writes that had not reached the disk.
+ * Once a MovieChangeStream is set, every appended review is reported to it.
+ */
+@Slf4j
+public class MappedReviewStore implements AutoCloseable {
+
+  private static final Pattern SEGMENT_FILE = Pattern.compile("segment-(\\d{10})\\.log");
+
+  private static final String COMPACTING_SUFFIX = ".compacting";
+
+  //holds the number of the first compacted segment while old segments are being replaced
+  private static final String COMPACTION_MARKER = "COMPACTION";
+
+  private static final class Head {
+
+    final long location;
+
+    final int count;
+
+    Head(long location, int count) {
+      this.location = location;
+      this.count = count;
+    }
+  }
+
+  //segments and the index that points into them, replaced as a whole by compaction
+  private static final class Generation {
+
+    final int firstNumber;
+
+    //copy on write, a new segment is published before the index points into it
+    volatile Segment[] segments;
+
+    final ConcurrentHashMap<Long, Head> index;
+
+    Generation(List<Segment> segments, ConcurrentHashMap<Long, Head> index) {
+      this.firstNumber = segments.get(0).number;
+      this.segments = segments.toArray(new Segment[0]);
+      this.index = index;
+    }
+
+    Segment segment(long location) {
+      return segments[(int) (location >>> 32) - firstNumber];
+    }
+  }
+
+  @FunctionalInterface
+  interface FileRemover {
+
+    void delete(Path file) throws IOException;
+  }
+
+  private final ReviewStoreSettings settings;
+
+  private FileRemover fileRemover = Files::deleteIfExists;
+
+  private volatile Generation generation;
+
+  private volatile MovieChangeStream movieChanges;
+
+  //writer state, guarded by this
+  private Segment active;
+
+  private int writeOffset;
+
+  private MappedReviewStore(ReviewStoreSettings settings) {
+    this.settings = settings;
+  }
+
+  public static MappedReviewStore open(ReviewStoreSettings settings) {
+    var store = new MappedReviewStore(settings);
+    try {
+      Files.createDirectories(settings.getDirectory());
+      store.recoverCompaction();
+      store.recover();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return store;
+  }
+
+  public void append(Review review) {
+    write(review);
+    var changes = movieChanges;
+    if (changes != null) {
+      changes.reviewAdded(review);
+    }
+  }
+
+  private synchronized void write(Review review) {
+    long movieInfoId = review.getMovieInfoId();
+    var comment = RecordFormat.encodeComment(review);
+    var offset = reserve(RecordFormat.recordLength(comment));
+    var index = generation.index;
+    var head = index.get(movieInfoId);
+    var length = RecordFormat.writeReview(active.buffer, offset,
+        head == null ? NO_RECORD : head.location, review, comment);
+    commit(offset, length);
+    index.put(movieInfoId,
+        new Head(location(active.number, offset), head == null ? 1 : head.count + 1));
+  }
+
+  public synchronized void appendAll(Iterable<Review> reviews) {
+    reviews.forEach(this::append);
+  }
+
+  public void setMovieChangeStream(MovieChangeStream movieChanges) {
+    this.movieChanges = movieChanges;
+  }
+
+  //the reviews stay on disk until the next compaction, they are unreachable from now on
+  public synchronized boolean deleteReviews(long movieInfoId) {
+    if (!generation.index.containsKey(movieInfoId)) {
+      return false;
+    }
+    var offset = reserve(RecordFormat.recordLength(null));
+    commit(offset, RecordFormat.writeDeleteMovie(active.buffer, offset, movieInfoId));
+    generation.index.remove(movieInfoId);
+    return true;
+  }
+
+  //newest review first, records are decoded one at a time as they are requested
+  public Flux<Review> reviews(long movieInfoId) {
+    return Flux.defer(() -> {
+      var current = generation;
+      var head = current.index.get(movieInfoId);
+      if (head == null) {
+        return Flux.empty();
+      }
+      return Flux.generate(() -> head.location, (location, sink) -> {
+        var segment = current.segment(location);
+        var offset = offset(location);
+        sink.next(RecordFormat.readReview(segment.buffer, offset));
+        var previous = RecordFormat.previous(segment.buffer, offset);
+        if (previous == NO_RECORD) {
+          sink.complete();
+        }
+        return previous;
+      });
+    });
+  }
+
+  //blocking version of reviews(movieInfoId), also newest first
+  public List<Review> reviewList(long movieInfoId) {
+    var current = generation;
+    var head = current.index.get(movieInfoId);
+    if (head == null) {
+      return List.of();
+    }
+    var reviews = new ArrayList<Review>(head.count);
+    for (var location : chain(current, head)) {
+      reviews.add(RecordFormat.readReview(current.segment(location).buffer, offset(location)));
+    }
+    return reviews;
+  }
+
+  public int reviewCount(long movieInfoId) {
+    var head = generation.index.get(movieInfoId);
+    return head == null ? 0 : head.count;
+  }
+
+  public int movieCount() {
+    return generation.index.size();
+  }
+
+  public int segmentCount() {
+    return generation.segments.length;
+  }
+
+  /**
+   * Rewrites the live reviews into new segments and deletes the old ones, dropping deleted
+   * reviews and the gaps at the end of every segment. The reviews of a movie end up next to each
+   * other, oldest first. A crash at any point leaves either the old or the new segments.
+   */
+  public synchronized void compact() {
+    var old = generation;
+    var oldActive = active;
+    var oldWriteOffset = writeOffset;
+    var firstNumber = active.number + 1;
+    var compacted = new ArrayList<Segment>();
+    var index = new ConcurrentHashMap<Long, Head>();
+    try {
+      active.force();
+      active = Segment.open(firstNumber, compactingPath(firstNumber), settings.getSegmentSize());
+      writeOffset = 0;
+      compacted.add(active);
+
+      for (var movie : old.index.entrySet()) {
+        var chain = chain(old, movie.getValue());
+        var location = NO_RECORD;
+        for (int i = chain.length - 1; i >= 0; i--) {
+          var review = RecordFormat.readReview(old.segment(chain[i]).buffer, offset(chain[i]));
+          var comment = RecordFormat.encodeComment(review);
+          if (writeOffset + RecordFormat.recordLength(comment) > active.capacity()) {
+            active.force();
+            active = Segment.open(active.number + 1, compactingPath(active.number + 1),
+                settings.getSegmentSize());
+            writeOffset = 0;
+            compacted.add(active);
+          }
+          var length = RecordFormat.writeReview(active.buffer, writeOffset, location, review,
+              comment);
+          location = location(active.number, writeOffset);
+          writeOffset += length;
+        }
+        index.put(movie.getKey(), new Head(location, chain.length));
+      }
+      compacted.forEach(Segment::force);
+
+      //from here on open() finishes the compaction instead of rolling it back
+      writeMarker(firstNumber);
+    } catch (IOException e) {
+      //the old segments are untouched, keep writing to them, open() removes the leftovers
+      active = oldActive;
+      writeOffset = oldWriteOffset;
+      throw new UncheckedIOException(e);
+    }
+
+    //readers and the writer move to the compacted segments before any old file is touched
+    generation = new Generation(compacted, index);
+    log.info("Compacted review store {} into {} segments, {} movies",
+        settings.getDirectory(), compacted.size(), index.size());
+    removeOldSegments(old, compacted, firstNumber);
+  }
+
+  //best effort, the marker is only deleted once the old files are gone, until then open() finishes
+  //the cleanup, so a failure here is logged and not thrown
+  private void removeOldSegments(Generation old, List<Segment> compacted, int firstNumber) {
+    try {
+      for (var segment : old.segments) {
+        segment.close();
+        fileRemover.delete(segment.path());
+      }
+      //left behind by an earlier compaction whose cleanup failed
+      for (var number : segmentNumbers()) {
+        if (number < firstNumber) {
+          fileRemover.delete(segmentPath(number));
+        }
+      }
+      for (var segment : compacted) {
+        segment.renameTo(segmentPath(segment.number));
+      }
+      Files.delete(settings.getDirectory().resolve(COMPACTION_MARKER));
+    } catch (IOException e) {
+      log.warn("Could not remove the compacted segments of review store {}, open() will",
+          settings.getDirectory(), e);
+    }
+  }
+
+  //lets tests fail the removal of old segment files
+  void setFileRemover(FileRemover fileRemover) {
+    this.fileRemover = fileRemover;
+  }
+
+  @Override
+  public synchronized void close() {
+    try {
+      for (var segment : generation.segments) {
+        segment.force();
+        segment.close();
+      }
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private int reserve(int length) {
+    if (length > settings.getSegmentSize()) {
+      throw new IllegalArgumentException("Review of " + length
+          + " bytes does not fit in a segment of " + settings.getSegmentSize());
+    }
+    if (writeOffset + length > active.capacity()) {
+      roll();
+    }
+    return writeOffset;
+  }
+
+  private void commit(int offset, int length) {
+    if (settings.isSyncOnAppend()) {
+      active.buffer.force(offset, length);
+    }
+    writeOffset = offset + length;
+  }
+
+  private void roll() {
+    try {
+      active.force();
+      var next = Segment.open(active.number + 1, segmentPath(active.number + 1),
+          settings.getSegmentSize());
+      var segments = generation.segments;
+      var rolled = Arrays.copyOf(segments, segments.length + 1);
+      rolled[segments.length] = next;
+      generation.segments = rolled;
+      active = next;
+      writeOffset = 0;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  //locations of the reviews of a movie, newest first
+  private static long[] chain(Generation generation, Head head) {
+    var chain = new long[head.count];
+    var location = head.location;
+    for (int i = 0; i < chain.length; i++) {
+      chain[i] = location;
+      location = RecordFormat.previous(generation.segment(location).buffer, offset(location));
+    }
+    return chain;
+  }
+
+  private void recover() throws IOException {
+    var segments = new ArrayList<Segment>();
+    for (var number : segmentNumbers()) {
+      if (!segments.isEmpty() && number != segments.get(segments.size() - 1).number + 1) {
+        throw new IllegalStateException("Review segment " + (number - 1) + " is missing in "
+            + settings.getDirectory());
+      }
+      segments.add(Segment.open(number, segmentPath(number), settings.getSegmentSize()));
+    }
+    if (segments.isEmpty()) {
+      segments.add(Segment.open(1, segmentPath(1), settings.getSegmentSize()));
+    }
+
+    var index = new ConcurrentHashMap<Long, Head>();
+    var end = 0;
+    var last = 0;
+    for (; last < segments.size(); last++) {
+      var buffer = segments.get(last).buffer;
+      var offset = 0;
+      int length;
+      while ((length = RecordFormat.validLength(buffer, offset)) > 0) {
+        var movieInfoId = RecordFormat.movieInfoId(buffer, offset);
+        if (RecordFormat.type(buffer, offset) == RecordFormat.DELETE_MOVIE) {
+          index.remove(movieInfoId);
+        } else {
+          var head = index.get(movieInfoId);
+          index.put(movieInfoId, new Head(location(segments.get(last).number, offset),
+              head == null ? 1 : head.count + 1));
+        }
+        offset += length;
+      }
+      end = offset;
+      if (length < 0) {
+        log.warn("Torn review record in {} at offset {}, dropping everything after it",
+            segments.get(last).path(), offset);
+        break;
+      }
+    }
+    last = Math.min(last, segments.size() - 1);
+
+    //segments after a torn record would point into the dropped part
+    for (var dropped : segments.subList(last + 1, segments.size())) {
+      dropped.close();
+      Files.delete(dropped.path());
+    }
+    var kept = new ArrayList<>(segments.subList(0, last + 1));
+    active = kept.get(kept.size() - 1);
+    writeOffset = end;
+    clearTail(active, end);
+    generation = new Generation(kept, index);
+  }
+
+  //a torn record can leave bytes behind the end that a later recovery must not read
+  private static void clearTail(Segment segment, int from) {
+    var buffer = segment.buffer;
+    for (int i = from; i < buffer.capacity(); i++) {
+      if (buffer.get(i) != 0) {
+        for (int j = from; j < buffer.capacity(); j++) {
+          buffer.put(j, (byte) 0);
+        }
+        segment.force();
+        return;
+      }
+    }
+  }
+
+  //finishes a compaction that got as far as its marker, otherwise throws its output away
+  private void recoverCompaction() throws IOException {
+    var directory = settings.getDirectory();
+    var marker = directory.resolve(COMPACTION_MARKER);
+    if (Files.exists(marker)) {
+      var firstNumber = Integer.parseInt(Files.readString(marker).trim());
+      for (var number : segmentNumbers()) {
+        if (number < firstNumber) {
+          Files.delete(segmentPath(number));
+        }
+      }
+      try (var files = Files.list(directory)) {
+        for (var file : files.filter(this::isCompacting).toList()) {
+          var name = file.getFileName().toString();
+          Files.move(file, directory.resolve(
+              name.substring(0, name.length() - COMPACTING_SUFFIX.length())));
+        }
+      }
+      Files.delete(marker);
+      log.info("Finished interrupted compaction of review store {}", directory);
+    } else {
+      try (var files = Files.list(directory)) {
+        for (var file : files.filter(this::isCompacting).toList()) {
+          Files.delete(file);
+        }
+      }
+    }
+  }
+
+  private void writeMarker(int firstNumber) throws IOException {
+    var directory = settings.getDirectory();
+    var temporary = directory.resolve(COMPACTION_MARKER + ".tmp");
+    Files.writeString(temporary, Integer.toString(firstNumber));
+    Files.move(temporary, directory.resolve(COMPACTION_MARKER), StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  private boolean isCompacting(Path file) {
+    return file.getFileName().toString().endsWith(COMPACTING_SUFFIX);
+  }
+
+  private List<Integer> segmentNumbers() throws IOException {
+    try (var files = Files.list(settings.getDirectory())) {
+      return files
+          .map(file -> SEGMENT_FILE.matcher(file.getFileName().toString()))
+          .filter(matcher -> matcher.matches())
+          .map(matcher -> Integer.parseInt(matcher.group(1)))
+          .sorted()
+          .toList();
+    }
+  }
+
+  private Path segmentPath(int number) {
+    return settings.getDirectory().resolve(String.format("segment-%010d.log", number));
+  }
+
+  private Path compactingPath(int number) {
+    return segmentPath(number).resolveSibling(
+        segmentPath(number).getFileName() + COMPACTING_SUFFIX);
+  }
+
+  private static long location(int segmentNumber, int offset) {
+    return (long) segmentNumber << 32 | offset;
+  }
+
+  private static int offset(long location) {
+    return (int) location;
+  }
+}
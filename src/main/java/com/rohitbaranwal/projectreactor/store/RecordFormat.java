@@ -0,0 +1,129 @@
+package com.rohitbaranwal.projectreactor.store;
+
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+
+/**
+ * Layout of a record in a segment, all access is absolute so concurrent readers never share a
+ * buffer position.
+ * <pre>
+ *   int    payload length, written last, 0 marks the end of the segment
+ *   int    CRC32 of the payload
+ *   byte   type, REVIEW or DELETE_MOVIE
+ *   long   movieInfoId
+ *   long   location of the previous record of the same movie, NO_RECORD for the first
+ *   long   reviewId
+ *   double rating, NaN for null
+ *   int    comment length in bytes, -1 for null
+ *   byte[] comment, UTF-8
+ * </pre>
+ */
+final class RecordFormat {
+
+  static final byte REVIEW = 1;
+
+  static final byte DELETE_MOVIE = 2;
+
+  static final long NO_RECORD = -1L;
+
+  static final int HEADER = 8;
+
+  private static final int FIXED_PAYLOAD = 37;
+
+  private static final long NULL_REVIEW_ID = Long.MIN_VALUE;
+
+  private RecordFormat() {
+  }
+
+  static int recordLength(byte[] comment) {
+    return HEADER + FIXED_PAYLOAD + (comment == null ? 0 : comment.length);
+  }
+
+  static byte[] encodeComment(Review review) {
+    var comment = review.getComment();
+    return comment == null ? null : comment.getBytes(StandardCharsets.UTF_8);
+  }
+
+  static int writeReview(ByteBuffer buffer, int offset, long previous, Review review,
+      byte[] comment) {
+    return write(buffer, offset, REVIEW, review.getMovieInfoId(), previous,
+        review.getReviewId() == null ? NULL_REVIEW_ID : review.getReviewId(),
+        review.getRating() == null ? Double.NaN : review.getRating(), comment);
+  }
+
+  static int writeDeleteMovie(ByteBuffer buffer, int offset, long movieInfoId) {
+    return write(buffer, offset, DELETE_MOVIE, movieInfoId, NO_RECORD, NULL_REVIEW_ID, Double.NaN,
+        null);
+  }
+
+  private static int write(ByteBuffer buffer, int offset, byte type, long movieInfoId,
+      long previous, long reviewId, double rating, byte[] comment) {
+    var payload = offset + HEADER;
+    buffer.put(payload, type);
+    buffer.putLong(payload + 1, movieInfoId);
+    buffer.putLong(payload + 9, previous);
+    buffer.putLong(payload + 17, reviewId);
+    buffer.putDouble(payload + 25, rating);
+    buffer.putInt(payload + 33, comment == null ? -1 : comment.length);
+    if (comment != null) {
+      buffer.put(payload + FIXED_PAYLOAD, comment);
+    }
+    var payloadLength = FIXED_PAYLOAD + (comment == null ? 0 : comment.length);
+    buffer.putInt(offset + 4, crc(buffer, payload, payloadLength));
+    //the length makes the record visible to recovery, so it goes last
+    buffer.putInt(offset, payloadLength);
+    return HEADER + payloadLength;
+  }
+
+  //length of the whole record at offset, 0 at the end of the data and -1 for a torn record
+  static int validLength(ByteBuffer buffer, int offset) {
+    if (offset + HEADER > buffer.capacity()) {
+      return 0;
+    }
+    var payloadLength = buffer.getInt(offset);
+    if (payloadLength == 0) {
+      return 0;
+    }
+    if (payloadLength < FIXED_PAYLOAD
+        || (long) offset + HEADER + payloadLength > buffer.capacity()
+        || buffer.getInt(offset + 4) != crc(buffer, offset + HEADER, payloadLength)) {
+      return -1;
+    }
+    return HEADER + payloadLength;
+  }
+
+  static byte type(ByteBuffer buffer, int offset) {
+    return buffer.get(offset + HEADER);
+  }
+
+  static long movieInfoId(ByteBuffer buffer, int offset) {
+    return buffer.getLong(offset + HEADER + 1);
+  }
+
+  static long previous(ByteBuffer buffer, int offset) {
+    return buffer.getLong(offset + HEADER + 9);
+  }
+
+  static Review readReview(ByteBuffer buffer, int offset) {
+    var payload = offset + HEADER;
+    var reviewId = buffer.getLong(payload + 17);
+    var rating = buffer.getDouble(payload + 25);
+    var commentLength = buffer.getInt(payload + 33);
+    String comment = null;
+    if (commentLength >= 0) {
+      var bytes = new byte[commentLength];
+      buffer.get(payload + FIXED_PAYLOAD, bytes);
+      comment = new String(bytes, StandardCharsets.UTF_8);
+    }
+    return new Review(reviewId == NULL_REVIEW_ID ? null : reviewId,
+        buffer.getLong(payload + 1), comment, Double.isNaN(rating) ? null : rating);
+  }
+
+  private static int crc(ByteBuffer buffer, int from, int length) {
+    var crc = new CRC32();
+    crc.update(buffer.slice(from, length));
+    return (int) crc.getValue();
+  }
+}
@@ -0,0 +1,59 @@
+package com.rohitbaranwal.projectreactor.store;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * One memory mapped segment file. The mapping stays valid after close and after the file is
+ * deleted, readers that still stream from a compacted segment are not affected.
+ */
+final class Segment {
+
+  final int number;
+
+  final MappedByteBuffer buffer;
+
+  private final FileChannel channel;
+
+  private Path path;
+
+  private Segment(int number, Path path, FileChannel channel, MappedByteBuffer buffer) {
+    this.number = number;
+    this.path = path;
+    this.channel = channel;
+    this.buffer = buffer;
+  }
+
+  //an existing file keeps its size, a new one is created with size bytes of zeros
+  static Segment open(int number, Path path, int size) throws IOException {
+    var channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+        StandardOpenOption.WRITE);
+    var mappedSize = channel.size() > 0 ? channel.size() : size;
+    return new Segment(number, path, channel, channel.map(MapMode.READ_WRITE, 0, mappedSize));
+  }
+
+  int capacity() {
+    return buffer.capacity();
+  }
+
+  Path path() {
+    return path;
+  }
+
+  void force() {
+    buffer.force();
+  }
+
+  void renameTo(Path target) throws IOException {
+    path = Files.move(path, target);
+  }
+
+  void close() throws IOException {
+    channel.close();
+  }
+}
@@ -0,0 +1,83 @@
+package com.rohitbaranwal.projectreactor.util;
+
+/**
+ * A range of a CharSequence, nothing is copied until toString is called.
+ * Two slices are equal when they hold the same characters, wherever they come from.
+ */
+public final class CharSlice implements CharSequence {
+
+  private final CharSequence source;
+
+  private final int start;
+
+  private final int end;
+
+  public CharSlice(CharSequence source, int start, int end) {
+    if (start < 0 || end > source.length() || start > end) {
+      throw new IndexOutOfBoundsException(
+          "Slice " + start + ".." + end + " of " + source.length() + " chars");
+    }
+    this.source = source;
+    this.start = start;
+    this.end = end;
+  }
+
+  public int start() {
+    return start;
+  }
+
+  public int end() {
+    return end;
+  }
+
+  @Override
+  public int length() {
+    return end - start;
+  }
+
+  @Override
+  public char charAt(int index) {
+    if (index < 0 || index >= length()) {
+      throw new IndexOutOfBoundsException(index);
+    }
+    return source.charAt(start + index);
+  }
+
+  //code point starting at index of the slice, a surrogate pair counts as one
+  public int codePointAt(int index) {
+    return Character.codePointAt(this, index);
+  }
+
+  @Override
+  public CharSlice subSequence(int from, int to) {
+    if (from < 0 || to > length() || from > to) {
+      throw new IndexOutOfBoundsException(
+          "Slice " + from + ".." + to + " of " + length() + " chars");
+    }
+    return new CharSlice(source, start + from, start + to);
+  }
+
+  public boolean contentEquals(CharSequence other) {
+    return CharSequence.compare(this, other) == 0;
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    return other instanceof CharSlice slice && contentEquals(slice);
+  }
+
+  //same as the hashCode of the String with these characters
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int i = start; i < end; i++) {
+      hash = 31 * hash + source.charAt(i);
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return source.subSequence(start, end).toString();
+  }
+}
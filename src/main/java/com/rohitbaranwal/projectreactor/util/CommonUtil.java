@@ -3,6 +3,9 @@ package com.rohitbaranwal.projectreactor.util;
 import static java.lang.Thread.sleep;
 
 public class CommonUtil {
+
+  //blocks the calling thread, services simulate latency with SimulatedLatency instead
+  @Deprecated
   public static void delay(int ms){
     try {
       sleep(ms);
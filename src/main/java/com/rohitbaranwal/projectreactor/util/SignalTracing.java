@@ -0,0 +1,60 @@
+package com.rohitbaranwal.projectreactor.util;
+
+import com.rohitbaranwal.projectreactor.config.TraceSettings;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+import java.util.logging.Level;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runtime configurable replacement for an unconditional .log() at the end of a pipeline.
+ * Used as .transform(traceFlux("getAllMovies")), the decision is made when the pipeline is
+ * assembled: a pipeline that is not traced gets a shared identity function, so it has no extra
+ * operator and nothing is allocated. A traced pipeline gets .log("trace.<pipeline>").
+ */
+public final class SignalTracing {
+
+  private static final Function<Object, Object> IDENTITY = Function.identity();
+
+  private static volatile TraceSettings settings = TraceSettings.fromSystemProperties();
+
+  private SignalTracing() {
+  }
+
+  public static void configure(TraceSettings traceSettings) {
+    settings = traceSettings;
+  }
+
+  public static TraceSettings settings() {
+    return settings;
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> Function<Flux<T>, Flux<T>> traceFlux(String pipeline) {
+    if (!sampled(pipeline)) {
+      return (Function<Flux<T>, Flux<T>>) (Function<?, ?>) IDENTITY;
+    }
+    return flux -> flux.log("trace." + pipeline, Level.INFO);
+  }
+
+  @SuppressWarnings("unchecked")
+  public static <T> Function<Mono<T>, Mono<T>> traceMono(String pipeline) {
+    if (!sampled(pipeline)) {
+      return (Function<Mono<T>, Mono<T>>) (Function<?, ?>) IDENTITY;
+    }
+    return mono -> mono.log("trace." + pipeline, Level.INFO);
+  }
+
+  static boolean sampled(String pipeline) {
+    var current = settings;
+    if (current.getDisabledPipelines().contains(pipeline)) {
+      return false;
+    }
+    if (!current.isEnabled() && !current.getEnabledPipelines().contains(pipeline)) {
+      return false;
+    }
+    return current.getSampleRate() >= 1.0
+        || ThreadLocalRandom.current().nextDouble() < current.getSampleRate();
+  }
+}
@@ -0,0 +1,122 @@
+package com.rohitbaranwal.projectreactor.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import reactor.core.publisher.Flux;
+
+/**
+ * Text fan-out operators that replace text.split("") and friends. They walk the text by code
+ * point, so a surrogate pair (an emoji, most CJK extensions) stays one element instead of two
+ * broken halves, and split("") does not compile a regex and copy every character into a String.
+ * characters reuses a cached String for every ASCII character, codePoints is boxed into the
+ * Integer cache for ASCII and charSlices/tokens emit views that copy nothing.
+ */
+public final class TextOperators {
+
+  private static final String[] ASCII = new String[128];
+
+  static {
+    for (char c = 0; c < ASCII.length; c++) {
+      ASCII[c] = String.valueOf(c).intern();
+    }
+  }
+
+  private TextOperators() {
+  }
+
+  //one String per code point, same result as split("") for text without surrogate pairs
+  public static Flux<String> characters(CharSequence text) {
+    return Flux.generate(() -> new int[1], (position, sink) -> {
+      int index = position[0];
+      if (index >= text.length()) {
+        sink.complete();
+        return position;
+      }
+      int codePoint = Character.codePointAt(text, index);
+      int next = index + Character.charCount(codePoint);
+      sink.next(character(text, index, next, codePoint));
+      position[0] = next;
+      return position;
+    });
+  }
+
+  public static List<String> characterList(CharSequence text) {
+    var characters = new ArrayList<String>(text.length());
+    for (int index = 0; index < text.length(); ) {
+      int codePoint = Character.codePointAt(text, index);
+      int next = index + Character.charCount(codePoint);
+      characters.add(character(text, index, next, codePoint));
+      index = next;
+    }
+    return characters;
+  }
+
+  public static Flux<Integer> codePoints(CharSequence text) {
+    return Flux.generate(() -> new int[1], (position, sink) -> {
+      int index = position[0];
+      if (index >= text.length()) {
+        sink.complete();
+        return position;
+      }
+      int codePoint = Character.codePointAt(text, index);
+      position[0] = index + Character.charCount(codePoint);
+      sink.next(codePoint);
+      return position;
+    });
+  }
+
+  //one slice per code point, 1 char or 2 for a surrogate pair
+  public static Flux<CharSlice> charSlices(CharSequence text) {
+    return Flux.generate(() -> new int[1], (position, sink) -> {
+      int index = position[0];
+      if (index >= text.length()) {
+        sink.complete();
+        return position;
+      }
+      int next = index + Character.charCount(Character.codePointAt(text, index));
+      position[0] = next;
+      sink.next(new CharSlice(text, index, next));
+      return position;
+    });
+  }
+
+  //runs of letters and digits, everything else separates them
+  public static Flux<CharSlice> tokens(CharSequence text) {
+    return Flux.generate(() -> new int[1], (position, sink) -> {
+      var token = nextToken(text, position[0]);
+      if (token == null) {
+        sink.complete();
+      } else {
+        position[0] = token.end();
+        sink.next(token);
+      }
+      return position;
+    });
+  }
+
+  //the first token of tokens(text) that starts at index or later, null when there is none,
+  //loops that do not need a Flux continue from the end() of the previous token
+  public static CharSlice nextToken(CharSequence text, int index) {
+    int start = skip(text, index, false);
+    if (start >= text.length()) {
+      return null;
+    }
+    return new CharSlice(text, start, skip(text, start, true));
+  }
+
+  private static String character(CharSequence text, int index, int next, int codePoint) {
+    return codePoint < ASCII.length ? ASCII[codePoint] : text.subSequence(index, next).toString();
+  }
+
+  //first index from index on whose code point is (wordChars) or is not a letter or digit
+  private static int skip(CharSequence text, int index, boolean wordChars) {
+    while (index < text.length()) {
+      int codePoint = Character.codePointAt(text, index);
+      if (Character.isLetterOrDigit(codePoint) != wordChars) {
+        return index;
+      }
+      index += Character.charCount(codePoint);
+    }
+    return index;
+  }
+}
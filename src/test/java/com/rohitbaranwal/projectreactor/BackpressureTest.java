@@ -1,5 +1,158 @@
 package com.rohitbaranwal.projectreactor;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rohitbaranwal.projectreactor.config.OverflowPolicy;
+import com.rohitbaranwal.projectreactor.config.ReviewIngestSettings;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.ingest.ReviewIngest;
+import com.rohitbaranwal.projectreactor.service.ReviewService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import reactor.core.Exceptions;
+import reactor.test.StepVerifier;
+
 public class BackpressureTest {
 
+  private ReviewService reviewService = new ReviewService();
+
+  @Test
+  void dropNewest() {
+    var reviewIngest = reviewIngest(OverflowPolicy.DROP_NEWEST, 4);
+    submit(reviewIngest, 1, 10);
+
+    assertEquals(4, reviewIngest.accepted());
+    assertEquals(6, reviewIngest.dropped());
+    assertEquals(4, reviewIngest.queueDepth());
+    StepVerifier.create(reviewIngest.reviews().map(Review::getReviewId), 0)
+        .thenRequest(10)
+        .expectNext(1L, 2L, 3L, 4L)
+        .then(() -> assertEquals(0, reviewIngest.queueDepth()))
+        .thenCancel()
+        .verify();
+  }
+
+  @Test
+  void dropOldest() {
+    var reviewIngest = reviewIngest(OverflowPolicy.DROP_OLDEST, 4);
+    submit(reviewIngest, 1, 10);
+
+    assertEquals(10, reviewIngest.accepted());
+    assertEquals(6, reviewIngest.dropped());
+    StepVerifier.create(reviewIngest.reviews().map(Review::getReviewId), 0)
+        .thenRequest(10)
+        .expectNext(7L, 8L, 9L, 10L)
+        .thenCancel()
+        .verify();
+  }
+
+  @Test
+  void keepLatest() {
+    var reviewIngest = reviewIngest(OverflowPolicy.KEEP_LATEST, 4);
+
+    StepVerifier.create(reviewIngest.reviews().map(Review::getReviewId), 0)
+        .then(() -> submit(reviewIngest, 1, 10))
+        .thenRequest(1)
+        .expectNext(10L)
+        //with demand the reviews go straight through
+        .thenRequest(5)
+        .then(() -> submit(reviewIngest, 11, 12))
+        .expectNext(11L, 12L)
+        .thenCancel()
+        .verify();
+    assertEquals(9, reviewIngest.dropped());
+    assertEquals(1, reviewIngest.maxQueueDepth());
+  }
+
+  @Test
+  void error() {
+    var reviewIngest = reviewIngest(OverflowPolicy.ERROR, 4);
+    submit(reviewIngest, 1, 4);
+    assertFalse(reviewIngest.submit(review(5)));
+
+    StepVerifier.create(reviewIngest.reviews(), 0)
+        .expectErrorMatches(Exceptions::isOverflow)
+        .verify();
+    //nothing is accepted after the overflow
+    assertFalse(reviewIngest.submit(review(6)));
+    assertEquals(2, reviewIngest.dropped());
+  }
+
+  @Test
+  void block() {
+    var reviewIngest = reviewIngest(OverflowPolicy.BLOCK, 2);
+    var producer = CompletableFuture.runAsync(() -> submit(reviewIngest, 1, 20));
+    //the buffer is full before there is any demand, so the producer has to wait for it
+    while (reviewIngest.queueDepth() < 2) {
+      Thread.onSpinWait();
+    }
+
+    StepVerifier.create(reviewIngest.reviews().map(Review::getReviewId), 0)
+        .expectSubscription()
+        .expectNoEvent(Duration.ofMillis(50))
+        .thenRequest(20)
+        .expectNextSequence(LongStream.rangeClosed(1, 20).boxed().toList())
+        .thenCancel()
+        .verify();
+    producer.join();
+
+    assertEquals(20, reviewIngest.accepted());
+    assertEquals(0, reviewIngest.dropped());
+    assertEquals(2, reviewIngest.maxQueueDepth());
+    assertTrue(reviewIngest.blockedTime().toNanos() > 0);
+  }
+
+  @Test
+  void block_timeout() {
+    var reviewIngest = new ReviewIngest(reviewService, ReviewIngestSettings.builder()
+        .overflowPolicy(OverflowPolicy.BLOCK)
+        .capacity(1)
+        .blockTimeout(Duration.ofMillis(50))
+        .build());
+
+    assertTrue(reviewIngest.submit(review(1)));
+    assertFalse(reviewIngest.submit(review(2)));
+    assertEquals(1, reviewIngest.dropped());
+    assertTrue(reviewIngest.blockedTime().toMillis() >= 50);
+  }
+
+  @Test
+  void ingest_fromReviewService() {
+    var reviewIngest = reviewIngest(OverflowPolicy.DROP_OLDEST, 16);
+    var meterRegistry = new SimpleMeterRegistry();
+    reviewIngest.bindTo(meterRegistry);
+
+    StepVerifier.create(reviewIngest.ingest(100L)).verifyComplete();
+    reviewIngest.close();
+
+    StepVerifier.create(reviewIngest.reviews())
+        .expectNextCount(2)
+        .verifyComplete();
+    assertEquals(2, reviewIngest.delivered());
+    assertEquals(2, meterRegistry.get("reviews.ingest.accepted")
+        .tag("policy", "DROP_OLDEST").functionCounter().count());
+    assertEquals(0, meterRegistry.get("reviews.ingest.queue.depth").gauge().value());
+  }
+
+  private ReviewIngest reviewIngest(OverflowPolicy overflowPolicy, int capacity) {
+    return new ReviewIngest(reviewService, ReviewIngestSettings.builder()
+        .overflowPolicy(overflowPolicy)
+        .capacity(capacity)
+        .build());
+  }
+
+  private static void submit(ReviewIngest reviewIngest, long fromReviewId, long toReviewId) {
+    for (long reviewId = fromReviewId; reviewId <= toReviewId; reviewId++) {
+      reviewIngest.submit(review(reviewId));
+    }
+  }
+
+  private static Review review(long reviewId) {
+    return new Review(reviewId, 100L, "Review " + reviewId, 8.0);
+  }
 }
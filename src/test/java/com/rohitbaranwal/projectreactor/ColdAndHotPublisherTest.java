@@ -1,5 +1,165 @@
 package com.rohitbaranwal.projectreactor;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.rohitbaranwal.projectreactor.config.CatalogFeedSettings;
+import com.rohitbaranwal.projectreactor.domain.Movie;
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.feed.CatalogFeed;
+import com.rohitbaranwal.projectreactor.service.MovieInfoService;
+import com.rohitbaranwal.projectreactor.service.MovieReactiveService;
+import com.rohitbaranwal.projectreactor.service.ReviewService;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import org.junit.jupiter.api.Test;
+import org.reactivestreams.Subscription;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
 public class ColdAndHotPublisherTest {
 
+  private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+  private MovieReactiveService movieReactiveService =
+      new MovieReactiveService(new MovieInfoService(), new ReviewService());
+
+  private AtomicInteger catalogLoads = new AtomicInteger();
+
+  @Test
+  void coldPublisher_loadsPerSubscriber() {
+    var movies = countingLoader().get();
+
+    movies.blockLast(TIMEOUT);
+    movies.blockLast(TIMEOUT);
+    assertEquals(2, catalogLoads.get());
+  }
+
+  @Test
+  void catalogFeed_sharesOneLoad() {
+    var catalogFeed = new CatalogFeed(countingLoader());
+    //keeps the feed connected while the others come and go
+    var dashboard = catalogFeed.movies().subscribe();
+
+    var first = catalogFeed.movies().take(3).collectList();
+    var second = catalogFeed.movies().take(3).collectList();
+    var both = Flux.merge(first, second).collectList().block(TIMEOUT);
+
+    assertEquals(2, both.size());
+    both.forEach(movies -> assertEquals(List.of("Batman Begins", "The Dark Knight",
+        "Dark Knight Rises"), names(movies)));
+    assertEquals(1, catalogLoads.get());
+    dashboard.dispose();
+  }
+
+  @Test
+  void catalogFeed_lateSubscriberGetsReplayAndLiveUpdates() {
+    var catalogFeed = new CatalogFeed(countingLoader());
+
+    StepVerifier.create(catalogFeed.movies())
+        .expectNextCount(3)
+        .then(() -> {
+          //subscribes while the first subscriber is still connected
+          StepVerifier.create(catalogFeed.movies().map(movie -> movie.getMovieInfo().getName()))
+              .expectNext("Batman Begins", "The Dark Knight", "Dark Knight Rises")
+              .then(() -> catalogFeed.publish(movie(103L, "Tenet")))
+              .expectNext("Tenet")
+              .thenCancel()
+              .verify(TIMEOUT);
+        })
+        .assertNext(movie -> assertEquals("Tenet", movie.getMovieInfo().getName()))
+        .thenCancel()
+        .verify(TIMEOUT);
+
+    assertEquals(1, catalogFeed.connections());
+    assertEquals(0, catalogFeed.subscriberCount());
+  }
+
+  @Test
+  void catalogFeed_catalogLargerThanReplay() {
+    var catalogFeed = new CatalogFeed(countingLoader(), CatalogFeedSettings.builder()
+        .replaySize(2)
+        .build());
+    var loaded = new ArrayList<String>();
+
+    //the first subscriber is connected before the load starts and gets the whole catalog
+    StepVerifier.create(catalogFeed.movies().map(movie -> movie.getMovieInfo().getName()))
+        .recordWith(() -> loaded)
+        .expectNextCount(3)
+        .then(() -> {
+          //a late subscriber only gets the last replaySize movies of it
+          var replayed = catalogFeed.movies().map(movie -> movie.getMovieInfo().getName())
+              .take(Duration.ofMillis(300))
+              .collectList()
+              .block(TIMEOUT);
+          assertEquals(loaded.subList(1, 3), replayed);
+        })
+        .thenCancel()
+        .verify(TIMEOUT);
+
+    assertEquals(1, catalogLoads.get());
+  }
+
+  @Test
+  void catalogFeed_refCount() throws InterruptedException {
+    var catalogFeed = new CatalogFeed(countingLoader(), CatalogFeedSettings.builder()
+        .gracePeriod(Duration.ofMillis(300))
+        .build());
+
+    catalogFeed.movies().take(3).blockLast(TIMEOUT);
+    //back within the grace period, the connection is reused
+    catalogFeed.movies().take(3).blockLast(TIMEOUT);
+    assertEquals(1, catalogFeed.connections());
+
+    //after the grace period the feed disconnects and the next subscriber loads it again
+    Thread.sleep(500);
+    catalogFeed.movies().take(3).blockLast(TIMEOUT);
+    assertEquals(2, catalogFeed.connections());
+    assertEquals(2, catalogLoads.get());
+  }
+
+  @Test
+  void catalogFeed_slowSubscriberDoesNotStallOthers() {
+    var catalogFeed = new CatalogFeed(countingLoader(), CatalogFeedSettings.builder()
+        .subscriberBufferSize(2)
+        .build());
+
+    //never requests anything
+    var slow = new BaseSubscriber<Movie>() {
+      @Override
+      protected void hookOnSubscribe(Subscription subscription) {
+      }
+    };
+    catalogFeed.movies().subscribe(slow);
+
+    var fast = StepVerifier
+        .create(catalogFeed.movies().map(movie -> movie.getMovieInfo().getName()))
+        .expectNextCount(3);
+    for (long movieInfoId = 1; movieInfoId <= 10; movieInfoId++) {
+      var movie = movie(movieInfoId, "Update " + movieInfoId);
+      fast = fast.then(() -> catalogFeed.publish(movie))
+          .expectNext(movie.getMovieInfo().getName());
+    }
+    fast.thenCancel().verify(TIMEOUT);
+    slow.dispose();
+
+    //3 replayed and 10 published, the slow subscriber holds on to 3 of them
+    assertEquals(10, catalogFeed.dropped());
+  }
+
+  private Supplier<Flux<Movie>> countingLoader() {
+    return () -> movieReactiveService.getAllMovies()
+        .doOnSubscribe(subscription -> catalogLoads.incrementAndGet());
+  }
+
+  private static List<String> names(List<Movie> movies) {
+    return movies.stream().map(movie -> movie.getMovieInfo().getName()).toList();
+  }
+
+  private static Movie movie(long movieInfoId, String name) {
+    return new Movie(new MovieInfo(movieInfoId, name, 2020, List.of(), null), List.of());
+  }
 }
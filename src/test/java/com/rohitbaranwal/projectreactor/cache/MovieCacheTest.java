@@ -0,0 +1,151 @@
+package com.rohitbaranwal.projectreactor.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.rohitbaranwal.projectreactor.config.MovieCacheSettings;
+import com.rohitbaranwal.projectreactor.domain.Movie;
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.service.MovieInfoService;
+import com.rohitbaranwal.projectreactor.service.MovieReactiveService;
+import com.rohitbaranwal.projectreactor.service.ReviewService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class MovieCacheTest {
+
+  private ReviewService reviewService = Mockito.spy(new ReviewService());
+
+  private MovieReactiveService movieReactiveService =
+      new MovieReactiveService(new MovieInfoService(), reviewService);
+
+  @Test
+  void getMovieById_hit() {
+    var movieCache = new MovieCache(movieReactiveService::getMovieById);
+
+    StepVerifier.create(movieCache.getMovieById(100L))
+        .assertNext(movie -> assertEquals(100L, movie.getMovieInfo().getMovieInfoId()))
+        .verifyComplete();
+
+    StepVerifier.create(movieCache.getMovieById(100L))
+        .assertNext(movie -> assertEquals(100L, movie.getMovieInfo().getMovieInfoId()))
+        .verifyComplete();
+
+    //second lookup is served from the cache
+    Mockito.verify(reviewService, Mockito.times(1)).retrieveReviewsFlux(100L);
+    assertEquals(1, movieCache.stats().hitCount());
+    assertEquals(1, movieCache.stats().missCount());
+  }
+
+  @Test
+  void getMovieById_expired() throws InterruptedException {
+    var cacheSettings = MovieCacheSettings.builder()
+        .ttl(Duration.ofMillis(100))
+        .refreshAfter(null)
+        .build();
+    var movieCache = new MovieCache(movieReactiveService::getMovieById, cacheSettings);
+
+    StepVerifier.create(movieCache.getMovieById(100L))
+        .expectNextCount(1)
+        .verifyComplete();
+
+    Thread.sleep(200);
+
+    StepVerifier.create(movieCache.getMovieById(100L))
+        .expectNextCount(1)
+        .verifyComplete();
+
+    Mockito.verify(reviewService, Mockito.times(2)).retrieveReviewsFlux(100L);
+    assertEquals(2, movieCache.stats().missCount());
+  }
+
+  @Test
+  void getMovieById_cached() {
+    StepVerifier.create(movieReactiveService.getMovieById_cached(100L))
+        .expectNextCount(1)
+        .verifyComplete();
+
+    StepVerifier.create(movieReactiveService.getMovieById_cached(100L))
+        .assertNext(movie -> assertEquals(100L, movie.getMovieInfo().getMovieInfoId()))
+        .verifyComplete();
+
+    Mockito.verify(reviewService, Mockito.times(1)).retrieveReviewsFlux(100L);
+  }
+
+  @Test
+  void getMovieById_refreshAhead() throws InterruptedException {
+    var loads = new AtomicInteger();
+    var cacheSettings = MovieCacheSettings.builder()
+        .ttl(Duration.ofSeconds(10))
+        .refreshAfter(Duration.ofMillis(100))
+        .build();
+    //the reload takes a while, so the lookup that triggers it cannot see its result
+    var movieCache = new MovieCache(
+        movieId -> versionedMovie(movieId, loads).delayElement(Duration.ofMillis(100)),
+        cacheSettings);
+
+    StepVerifier.create(movieCache.getMovieById(100L))
+        .assertNext(movie -> assertEquals("v1", movie.getMovieInfo().getName()))
+        .verifyComplete();
+
+    Thread.sleep(200);
+
+    //the stale value is returned right away and the reload runs in the background
+    StepVerifier.create(movieCache.getMovieById(100L))
+        .assertNext(movie -> assertEquals("v1", movie.getMovieInfo().getName()))
+        .verifyComplete();
+
+    Thread.sleep(300);
+
+    StepVerifier.create(movieCache.getMovieById(100L))
+        .assertNext(movie -> assertEquals("v2", movie.getMovieInfo().getName()))
+        .verifyComplete();
+    assertEquals(1, movieCache.stats().missCount());
+  }
+
+  @Test
+  void getMovieById_sizeBounded() {
+    var loads = new AtomicInteger();
+    var cacheSettings = MovieCacheSettings.builder()
+        .maximumSize(5)
+        .build();
+    var movieCache = new MovieCache(movieId -> versionedMovie(movieId, loads), cacheSettings);
+
+    for (long movieId = 0; movieId < 50; movieId++) {
+      StepVerifier.create(movieCache.getMovieById(movieId))
+          .expectNextCount(1)
+          .verifyComplete();
+    }
+    movieCache.cleanUp();
+
+    assertEquals(5, movieCache.size());
+    assertEquals(45, movieCache.stats().evictionCount());
+  }
+
+  @Test
+  void bindTo() {
+    var meterRegistry = new SimpleMeterRegistry();
+    var movieCache = new MovieCache(movieReactiveService::getMovieById);
+    movieCache.bindTo(meterRegistry);
+
+    movieCache.getMovieById(100L).block();
+    movieCache.getMovieById(100L).block();
+
+    assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "movies", "result", "hit")
+        .functionCounter().count());
+    assertEquals(1, meterRegistry.get("cache.gets").tags("cache", "movies", "result", "miss")
+        .functionCounter().count());
+  }
+
+  private Mono<Movie> versionedMovie(long movieId, AtomicInteger loads) {
+    return Mono.fromSupplier(() -> {
+      var movieInfo = new MovieInfo(movieId, "v" + loads.incrementAndGet(), 2005, List.of(), null);
+      return new Movie(movieInfo, List.of());
+    });
+  }
+}
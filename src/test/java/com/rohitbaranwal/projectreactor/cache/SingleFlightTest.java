@@ -0,0 +1,91 @@
+package com.rohitbaranwal.projectreactor.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class SingleFlightTest {
+
+  private SingleFlight<Long, String> singleFlight = new SingleFlight<>();
+
+  private AtomicInteger calls = new AtomicInteger();
+
+  private Mono<String> slowCall() {
+    calls.incrementAndGet();
+    return Mono.just("Batman Begins").delayElement(Duration.ofMillis(200));
+  }
+
+  @Test
+  void execute_concurrent() {
+    var results = Flux.range(0, 500)
+        .flatMap(i -> singleFlight.execute(100L, this::slowCall), 500)
+        .collectList();
+
+    StepVerifier.create(results)
+        .assertNext(names -> assertEquals(500, names.size()))
+        .verifyComplete();
+
+    assertEquals(1, calls.get());
+    assertEquals(499, singleFlight.coalescedCalls());
+    //entry is removed once the call completes
+    assertEquals(0, singleFlight.inFlightCount());
+  }
+
+  @Test
+  void execute_sequential() {
+    StepVerifier.create(singleFlight.execute(100L, this::slowCall))
+        .expectNext("Batman Begins")
+        .verifyComplete();
+
+    StepVerifier.create(singleFlight.execute(100L, this::slowCall))
+        .expectNext("Batman Begins")
+        .verifyComplete();
+
+    //nothing was in flight the second time, so no result is shared
+    assertEquals(2, calls.get());
+    assertEquals(0, singleFlight.coalescedCalls());
+  }
+
+  @Test
+  void execute_error() {
+    var errorCall = Mono.<String>error(new RuntimeException("Exception occured in Movie Service"))
+        .delaySubscription(Duration.ofMillis(200));
+
+    var results = Flux.range(0, 10)
+        .flatMap(i -> singleFlight.execute(100L, () -> errorCall)
+            .onErrorResume(ex -> Mono.just(ex.getMessage())))
+        .collectList();
+
+    StepVerifier.create(results)
+        .assertNext(messages -> messages.forEach(
+            message -> assertEquals("Exception occured in Movie Service", message)))
+        .verifyComplete();
+
+    assertEquals(9, singleFlight.coalescedCalls());
+    assertEquals(0, singleFlight.inFlightCount());
+  }
+
+  @Test
+  void executeMany_concurrent() {
+    var stringFlights = new SingleFlight<Long, String>();
+
+    var results = Flux.range(0, 50)
+        .flatMap(i -> stringFlights.executeMany(100L, () -> {
+          calls.incrementAndGet();
+          return Flux.just("Awesome Movie", "Excellent Movie").delayElements(Duration.ofMillis(100));
+        }).collectList())
+        .collectList();
+
+    StepVerifier.create(results)
+        .assertNext(reviewLists -> reviewLists.forEach(reviews -> assertEquals(2, reviews.size())))
+        .verifyComplete();
+
+    assertEquals(1, calls.get());
+    assertEquals(49, stringFlights.coalescedCalls());
+  }
+}
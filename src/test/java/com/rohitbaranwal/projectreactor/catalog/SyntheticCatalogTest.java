@@ -0,0 +1,75 @@
+package com.rohitbaranwal.projectreactor.catalog;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rohitbaranwal.projectreactor.config.CatalogSettings;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+class SyntheticCatalogTest {
+
+  @Test
+  void sameSeedSameCatalog() {
+    var settings = CatalogSettings.builder().seed(7L).movieCount(100).build();
+    var first = new SyntheticCatalog(settings);
+    var second = new SyntheticCatalog(settings);
+
+    assertEquals(first.movieInfoFlux().collectList().block(),
+        second.movieInfoFlux().collectList().block());
+    assertEquals(first.reviews(42L), second.reviews(42L));
+    assertNotEquals(first.movieInfo(42L),
+        new SyntheticCatalog(CatalogSettings.builder().seed(8L).build()).movieInfo(42L));
+  }
+
+  @Test
+  void movieInfoFlux() {
+    var catalog = new SyntheticCatalog(
+        CatalogSettings.builder().movieCount(1000).castSize(6).build());
+
+    StepVerifier.create(catalog.movieInfoFlux())
+        .assertNext(movieInfo -> {
+          assertEquals(SyntheticCatalog.FIRST_MOVIE_ID, movieInfo.getMovieInfoId());
+          assertEquals(6, movieInfo.getCast().size());
+          assertEquals(movieInfo.getYear(), movieInfo.getRelease_date().getYear());
+        })
+        .expectNextCount(999)
+        .verifyComplete();
+  }
+
+  @Test
+  void reviewsPerMovie() {
+    var catalog = new SyntheticCatalog(CatalogSettings.builder()
+        .minReviewsPerMovie(2)
+        .maxReviewsPerMovie(5)
+        .heavyTailRatio(0.0)
+        .build());
+
+    LongStream.range(1, 1000).forEach(movieInfoId -> {
+      var reviewCount = catalog.reviewCount(movieInfoId);
+      assertTrue(reviewCount >= 2 && reviewCount <= 5);
+      assertEquals(reviewCount, catalog.reviews(movieInfoId).size());
+    });
+  }
+
+  @Test
+  void heavyTail() {
+    var catalog = new SyntheticCatalog(CatalogSettings.builder()
+        .movieCount(10_000)
+        .heavyTailRatio(0.01)
+        .heavyTailReviews(100_000)
+        .build());
+
+    var heavyTailed = LongStream.range(1, 10_001)
+        .filter(movieInfoId -> catalog.reviewCount(movieInfoId) == 100_000)
+        .toArray();
+
+    //about 1% of 10k movies
+    assertTrue(heavyTailed.length > 50 && heavyTailed.length < 150, "was " + heavyTailed.length);
+    StepVerifier.create(catalog.reviewFlux(heavyTailed[0]))
+        .expectNextCount(100_000)
+        .verifyComplete();
+  }
+}
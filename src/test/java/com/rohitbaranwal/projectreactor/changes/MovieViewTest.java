@@ -0,0 +1,133 @@
+package com.rohitbaranwal.projectreactor.changes;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.rohitbaranwal.projectreactor.config.MovieChangeStreamSettings;
+import com.rohitbaranwal.projectreactor.domain.Movie;
+import com.rohitbaranwal.projectreactor.domain.MovieDelta;
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.domain.Revenue;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.repository.MovieInfoRepository;
+import com.rohitbaranwal.projectreactor.repository.ReviewColumns;
+import com.rohitbaranwal.projectreactor.service.RevenueService;
+import java.time.Duration;
+import java.util.List;
+import reactor.core.Exceptions;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class MovieViewTest {
+
+  private MovieView movieView = new MovieView();
+
+  @Test
+  void apply() {
+    var loaded = movieView.load(new Movie(movieInfo(100L, "Batman Begins"),
+        List.of(review(1L, 100L))));
+
+    var changed = movieView.apply(MovieDelta.reviewAdded(review(2L, 100L)));
+    assertSame(loaded, changed);
+    assertEquals(2, changed.getReviewList().size());
+
+    movieView.apply(MovieDelta.revenueUpdated(new Revenue(100L, 150e6, 373e6)));
+    movieView.apply(MovieDelta.movieInfoEdited(movieInfo(100L, "Batman Begins (2005)")));
+    assertEquals("Batman Begins (2005)", movieView.get(100L).getMovieInfo().getName());
+    assertEquals(373e6, movieView.get(100L).getRevenue().getBoxOffice());
+  }
+
+  @Test
+  void apply_duplicateReview() {
+    movieView.load(new Movie(movieInfo(100L, "Batman Begins"), List.of(review(1L, 100L))));
+
+    movieView.apply(MovieDelta.reviewAdded(review(1L, 100L)));
+    assertEquals(1, movieView.get(100L).getReviewList().size());
+  }
+
+  @Test
+  void apply_unknownMovie() {
+    assertNull(movieView.apply(MovieDelta.reviewAdded(review(1L, 200L))));
+    assertNull(movieView.apply(MovieDelta.revenueUpdated(new Revenue(200L, 1, 2))));
+
+    //a new MovieInfo adds the movie to the view
+    var added = movieView.apply(MovieDelta.movieInfoEdited(movieInfo(200L, "Tenet")));
+    assertEquals(0, added.getReviewList().size());
+    assertEquals(1, movieView.size());
+  }
+
+  @Test
+  void materialize_appliesDeltasAfterSnapshot() {
+    var movieChanges = new MovieChangeStream();
+    var snapshot = Flux.just(new Movie(movieInfo(100L, "Batman Begins"), List.of()));
+
+    StepVerifier.create(movieChanges.materialize(snapshot))
+        .assertNext(movie -> assertEquals(0, movie.getReviewList().size()))
+        .then(() -> {
+          movieChanges.reviewAdded(review(1L, 100L));
+          //not in the view, nothing is emitted
+          movieChanges.reviewAdded(review(2L, 300L));
+          movieChanges.revenueUpdated(new Revenue(100L, 150e6, 373e6));
+        })
+        .assertNext(movie -> assertEquals(1, movie.getReviewList().size()))
+        .assertNext(movie -> assertEquals(150e6, movie.getRevenue().getBudget()))
+        .thenCancel()
+        .verify(Duration.ofSeconds(5));
+    assertEquals(0, movieChanges.subscriberCount());
+  }
+
+  @Test
+  void materialize_writesEmitDeltas() {
+    var movieChanges = new MovieChangeStream();
+    var movieInfoRepository = new MovieInfoRepository(List.of(movieInfo(100L, "Batman Begins")));
+    var reviewColumns = new ReviewColumns();
+    var revenueService = new RevenueService();
+    movieInfoRepository.setMovieChangeStream(movieChanges);
+    reviewColumns.setMovieChangeStream(movieChanges);
+    revenueService.setMovieChangeStream(movieChanges);
+    var snapshot = movieInfoRepository.findAll()
+        .map(movieInfo -> new Movie(movieInfo, reviewColumns.reviewList(movieInfo.getMovieInfoId())));
+
+    StepVerifier.create(movieChanges.materialize(snapshot))
+        .assertNext(movie -> assertEquals(0, movie.getReviewList().size()))
+        .then(() -> reviewColumns.add(review(1L, 100L)))
+        .assertNext(movie -> assertEquals("Review 1", movie.getReviewList().get(0).getComment()))
+        .then(() -> movieInfoRepository.save(movieInfo(100L, "Batman Begins (2005)")))
+        .assertNext(movie -> assertEquals("Batman Begins (2005)", movie.getMovieInfo().getName()))
+        .then(() -> revenueService.updateRevenue(new Revenue(100L, 150e6, 373e6)))
+        .assertNext(movie -> {
+          assertEquals(373e6, movie.getRevenue().getBoxOffice());
+          assertEquals(1, movie.getReviewList().size());
+        })
+        .thenCancel()
+        .verify(Duration.ofSeconds(5));
+    assertEquals(373e6, revenueService.getRevenue(100L).getBoxOffice());
+  }
+
+  @Test
+  void materialize_overflow() {
+    var movieChanges = new MovieChangeStream(MovieChangeStreamSettings.builder()
+        .bufferSize(8)
+        .build());
+
+    //the snapshot never finishes, the deltas pile up behind it
+    StepVerifier.create(movieChanges.materialize(Flux.never()))
+        .then(() -> {
+          for (long reviewId = 0; reviewId < 100; reviewId++) {
+            movieChanges.reviewAdded(review(reviewId, 100L));
+          }
+        })
+        .expectErrorMatches(Exceptions::isOverflow)
+        .verify(Duration.ofSeconds(5));
+  }
+
+  private static MovieInfo movieInfo(long movieInfoId, String name) {
+    return new MovieInfo(movieInfoId, name, 2005, List.of("Christian Bale"), null);
+  }
+
+  private static Review review(long reviewId, long movieInfoId) {
+    return new Review(reviewId, movieInfoId, "Review " + reviewId, 8.0);
+  }
+}
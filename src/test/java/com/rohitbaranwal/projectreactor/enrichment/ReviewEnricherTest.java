@@ -0,0 +1,43 @@
+package com.rohitbaranwal.projectreactor.enrichment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ReviewEnricherTest {
+
+  private ReviewEnricher reviewEnricher = new ReviewEnricher();
+
+  @Test
+  void analyze_tokens() {
+    var insights = reviewEnricher.analyze(List.of(
+        //a surrogate pair inside a word does not split it
+        new Review(1L, 100L, "  Worth watching -- TWICE, 10/10! x\uD835\uDC00y", 9.0),
+        new Review(2L, 100L, null, null)));
+
+    assertEquals(6, insights.getTokenCount());
+    assertEquals(0.5, insights.getSentiment(), 1e-12);
+  }
+
+  @Test
+  void analyze() {
+    var insights = reviewEnricher.analyze(List.of(
+        new Review(1L, 100L, "Awesome Movie", 9.0),
+        new Review(2L, 100L, "Bad and boring, but great cast", 3.0),
+        new Review(3L, 100L, "Average Movie", null)));
+
+    assertEquals(10, insights.getTokenCount());
+    //1, (1 - 2) / 3 and 0
+    assertEquals((1 - 1 / 3.0) / 3, insights.getSentiment(), 1e-12);
+    assertEquals(1, insights.getPositiveReviews());
+    assertEquals(1, insights.getNegativeReviews());
+    assertEquals(0.6, insights.getNormalizedRating(), 1e-12);
+  }
+
+  @Test
+  void analyze_noReviews() {
+    assertEquals(0, reviewEnricher.analyze(List.of()).getTokenCount());
+  }
+}
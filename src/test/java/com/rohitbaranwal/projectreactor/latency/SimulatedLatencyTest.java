@@ -0,0 +1,98 @@
+package com.rohitbaranwal.projectreactor.latency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class SimulatedLatencyTest {
+
+  @Test
+  void pause() {
+    var latency = SimulatedLatency.fixed(Duration.ofMillis(50));
+
+    var start = System.nanoTime();
+    latency.pause();
+
+    assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+  }
+
+  @Test
+  void delayMono() {
+    var latency = SimulatedLatency.fixed(Duration.ofSeconds(1));
+
+    //virtual time proves the wait is a timer and not a sleeping thread
+    StepVerifier.withVirtualTime(() -> latency.delayMono(() -> "ALEX"))
+        .expectSubscription()
+        .expectNoEvent(Duration.ofMillis(999))
+        .thenAwait(Duration.ofMillis(1))
+        .expectNext("ALEX")
+        .verifyComplete();
+  }
+
+  @Test
+  void delayFlux() {
+    var latency = SimulatedLatency.fixed(Duration.ofSeconds(1));
+
+    StepVerifier.withVirtualTime(() -> latency.delayFlux(Flux.just("ALEX", "BEN")))
+        .expectSubscription()
+        .expectNoEvent(Duration.ofMillis(999))
+        .thenAwait(Duration.ofMillis(1))
+        .expectNext("ALEX", "BEN")
+        .verifyComplete();
+  }
+
+  @Test
+  void uniform() {
+    var distribution = LatencyDistribution.uniform(Duration.ofMillis(10), Duration.ofMillis(20));
+
+    IntStream.range(0, 1000).mapToObj(i -> distribution.next()).forEach(latency ->
+        assertTrue(latency.compareTo(Duration.ofMillis(10)) >= 0
+            && latency.compareTo(Duration.ofMillis(20)) <= 0));
+  }
+
+  @Test
+  void logNormal() {
+    var distribution = LatencyDistribution.logNormal(Duration.ofMillis(10), 0.5);
+
+    var samples = IntStream.range(0, 10_001)
+        .mapToLong(i -> distribution.next().toNanos())
+        .sorted()
+        .toArray();
+
+    var median = Duration.ofNanos(samples[samples.length / 2]);
+    assertTrue(median.compareTo(Duration.ofMillis(9)) > 0
+        && median.compareTo(Duration.ofMillis(11)) < 0, "median was " + median);
+  }
+
+  @Test
+  void trace(@TempDir Path dir) throws Exception {
+    var file = dir.resolve("latencies.txt");
+    Files.write(file, List.of("1", "2.5", "", "100"));
+
+    var distribution = LatencyDistribution.parse("trace:" + file);
+
+    var recorded = List.of(Duration.ofMillis(1), Duration.ofMillis(2).plusNanos(500_000),
+        Duration.ofMillis(100));
+    IntStream.range(0, 100).forEach(i -> assertTrue(recorded.contains(distribution.next())));
+  }
+
+  @Test
+  void parse() {
+    assertEquals(Duration.ZERO, LatencyDistribution.parse("none").next());
+    assertEquals(Duration.ofMillis(5), LatencyDistribution.parse("fixed:5").next());
+    Arrays.asList("uniform:1,10", "lognormal:5,0.5").forEach(spec ->
+        assertTrue(LatencyDistribution.parse(spec).next().toNanos() > 0));
+    assertThrows(IllegalArgumentException.class, () -> LatencyDistribution.parse("gaussian:5"));
+  }
+}
@@ -0,0 +1,37 @@
+package com.rohitbaranwal.projectreactor.load;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rohitbaranwal.projectreactor.exception.MovieException;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+class LoadDriverTest {
+
+  @Test
+  void run() {
+    var loadDriver = new LoadDriver(200, Duration.ofMillis(500));
+
+    var report = loadDriver.run(sequence -> Mono.delay(Duration.ofMillis(20))).block();
+
+    assertEquals(100, report.getRequests());
+    assertEquals(0, report.getErrors());
+    assertTrue(report.getP50().compareTo(Duration.ofMillis(20)) >= 0);
+    assertTrue(report.getP50().compareTo(report.getP999()) <= 0);
+    assertTrue(report.getThroughput() > 0);
+  }
+
+  @Test
+  void run_errors() {
+    var loadDriver = new LoadDriver(1000, Duration.ofMillis(100));
+
+    var report = loadDriver.run(sequence -> sequence % 2 == 0
+        ? Mono.error(new MovieException("failed"))
+        : Mono.just(sequence)).block();
+
+    assertEquals(100, report.getRequests());
+    assertEquals(50, report.getErrors());
+  }
+}
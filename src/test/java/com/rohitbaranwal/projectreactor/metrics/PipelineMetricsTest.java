@@ -0,0 +1,67 @@
+package com.rohitbaranwal.projectreactor.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+import com.rohitbaranwal.projectreactor.exception.MovieException;
+import com.rohitbaranwal.projectreactor.service.MovieInfoService;
+import com.rohitbaranwal.projectreactor.service.MovieReactiveService;
+import com.rohitbaranwal.projectreactor.service.ReviewService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import reactor.test.StepVerifier;
+
+class PipelineMetricsTest {
+
+  private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  private ReviewService reviewService = Mockito.mock(ReviewService.class);
+
+  private MovieReactiveService movieReactiveService =
+      new MovieReactiveService(new MovieInfoService(), reviewService);
+
+  @Test
+  void getAllMovies_success() {
+    Mockito.when(reviewService.retrieveReviewsFlux(anyLong()))
+        .thenCallRealMethod();
+    movieReactiveService.setMeterRegistry(meterRegistry);
+
+    StepVerifier.create(movieReactiveService.getAllMovies())
+        .expectNextCount(3)
+        .verifyComplete();
+
+    var timer = meterRegistry.get("movies.pipeline.duration")
+        .tag("pipeline", "getAllMovies")
+        .tag("outcome", "success")
+        .timer();
+    assertEquals(1, timer.count());
+
+    var elements = meterRegistry.get("movies.pipeline.elements")
+        .tag("pipeline", "getAllMovies")
+        .summary();
+    assertEquals(3, elements.totalAmount());
+  }
+
+  @Test
+  void getAllMovies_1_retry_error() {
+    Mockito.when(reviewService.retrieveReviewsFlux(anyLong()))
+        .thenThrow(new RuntimeException("Exception occured in Review Service"));
+    movieReactiveService.setMeterRegistry(meterRegistry);
+
+    StepVerifier.create(movieReactiveService.getAllMovies_1_retry())
+        .expectError(MovieException.class)
+        .verify();
+
+    var errors = meterRegistry.get("movies.pipeline.errors")
+        .tag("pipeline", "getAllMovies_1_retry")
+        .tag("exception", "MovieException")
+        .counter();
+    assertEquals(1, errors.count());
+
+    var retries = meterRegistry.get("movies.pipeline.retries")
+        .tag("pipeline", "getAllMovies_1_retry")
+        .counter();
+    assertEquals(3, retries.count());
+  }
+}
@@ -0,0 +1,181 @@
+package com.rohitbaranwal.projectreactor.repository;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+class MovieInfoRepositoryTest {
+
+  private MovieInfoRepository movieInfoRepository = new MovieInfoRepository(List.of(
+      movieInfo(100L, "Batman Begins", 2005, "Christian Bale", "Michael Cane"),
+      movieInfo(101L, "The Dark Knight", 2008, "Christian Bale", "HeathLedger"),
+      movieInfo(102L, "Dark Knight Rises", 2008, "Christian Bale", "Tom Hardy")));
+
+  @Test
+  void findById() {
+    StepVerifier.create(movieInfoRepository.findById(101L))
+        .assertNext(movieInfo -> assertEquals("The Dark Knight", movieInfo.getName()))
+        .verifyComplete();
+
+    StepVerifier.create(movieInfoRepository.findById(3L))
+        .verifyComplete();
+  }
+
+  @Test
+  void findAll() {
+    StepVerifier.create(movieInfoRepository.findAll().map(MovieInfo::getMovieInfoId))
+        .expectNext(100L, 101L, 102L)
+        .verifyComplete();
+  }
+
+  @Test
+  void findPage() {
+    movieInfoRepository.delete(101L);
+
+    StepVerifier.create(movieInfoRepository.findPage(0, 1))
+        .assertNext(page -> {
+          assertEquals(List.of(100L), ids(page.getMovieInfos()));
+          assertEquals(1, page.getNextCursor());
+          assertFalse(page.isLast());
+        })
+        .verifyComplete();
+
+    //the deleted movie is skipped and does not count towards the page size
+    StepVerifier.create(movieInfoRepository.findPage(1, 1))
+        .assertNext(page -> {
+          assertEquals(List.of(102L), ids(page.getMovieInfos()));
+          assertTrue(page.isLast());
+        })
+        .verifyComplete();
+
+    //movies saved later are picked up when resuming from the last cursor
+    movieInfoRepository.save(movieInfo(103L, "Tenet", 2020, "John David Washington"));
+    StepVerifier.create(movieInfoRepository.findPage(3, 10))
+        .assertNext(page -> assertEquals(List.of(103L), ids(page.getMovieInfos())))
+        .verifyComplete();
+  }
+
+  @Test
+  void findByYearAndCastMember() {
+    StepVerifier.create(movieInfoRepository.findByYear(2008).map(MovieInfo::getMovieInfoId))
+        .expectNext(101L, 102L)
+        .verifyComplete();
+
+    StepVerifier.create(movieInfoRepository.findByCastMember("Christian Bale"))
+        .expectNextCount(3)
+        .verifyComplete();
+
+    StepVerifier.create(movieInfoRepository.findByCastMember("Tom Hardy"))
+        .assertNext(movieInfo -> assertEquals(102L, movieInfo.getMovieInfoId()))
+        .verifyComplete();
+
+    StepVerifier.create(movieInfoRepository.findByYear(1999))
+        .verifyComplete();
+  }
+
+  @Test
+  void save_update() {
+    movieInfoRepository.save(movieInfo(101L, "The Dark Knight", 2009, "Heath Ledger"));
+
+    //secondary indexes follow the new year and cast, the insertion order is kept
+    StepVerifier.create(movieInfoRepository.findByYear(2008).map(MovieInfo::getMovieInfoId))
+        .expectNext(102L)
+        .verifyComplete();
+    StepVerifier.create(movieInfoRepository.findByYear(2009).map(MovieInfo::getMovieInfoId))
+        .expectNext(101L)
+        .verifyComplete();
+    StepVerifier.create(movieInfoRepository.findByCastMember("HeathLedger"))
+        .verifyComplete();
+    StepVerifier.create(movieInfoRepository.findAll().map(MovieInfo::getMovieInfoId))
+        .expectNext(100L, 101L, 102L)
+        .verifyComplete();
+  }
+
+  @Test
+  void delete() {
+    assertTrue(movieInfoRepository.delete(100L));
+    assertFalse(movieInfoRepository.delete(100L));
+
+    assertNull(movieInfoRepository.get(100L));
+    assertEquals(2, movieInfoRepository.size());
+    StepVerifier.create(movieInfoRepository.findByYear(2005))
+        .verifyComplete();
+
+    //saved again it goes to the end
+    movieInfoRepository.save(movieInfo(100L, "Batman Begins", 2005, "Christian Bale"));
+    StepVerifier.create(movieInfoRepository.findAll().map(MovieInfo::getMovieInfoId))
+        .expectNext(101L, 102L, 100L)
+        .verifyComplete();
+  }
+
+  @Test
+  void get_allocationFree() {
+    var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    for (long movieInfoId = 0; movieInfoId < 10_000; movieInfoId++) {
+      movieInfoRepository.save(movieInfo(movieInfoId, "Movie", 2000, "Cast"));
+    }
+    lookUpAll();
+
+    var before = threadMXBean.getCurrentThreadAllocatedBytes();
+    lookUpAll();
+    var allocated = threadMXBean.getCurrentThreadAllocatedBytes() - before;
+
+    //a single boxed key per lookup would be 160kB
+    assertTrue(allocated < 16 * 1024, "allocated " + allocated + " bytes");
+  }
+
+  @Test
+  void get_concurrentWrites() throws Exception {
+    var running = new AtomicBoolean(true);
+    var misses = new AtomicLong();
+    var reader = CompletableFuture.runAsync(() -> {
+      while (running.get()) {
+        //the three movies are never removed, so they must be found however the table is resized
+        for (long movieInfoId = 100; movieInfoId <= 102; movieInfoId++) {
+          if (movieInfoRepository.get(movieInfoId) == null) {
+            misses.incrementAndGet();
+          }
+        }
+      }
+    });
+
+    for (long movieInfoId = 1_000; movieInfoId < 200_000; movieInfoId++) {
+      movieInfoRepository.save(movieInfo(movieInfoId, "Movie", 2000, "Cast"));
+      if (movieInfoId % 3 == 0) {
+        movieInfoRepository.delete(movieInfoId);
+      }
+    }
+    running.set(false);
+    reader.get();
+
+    assertEquals(0, misses.get());
+    assertNotNull(movieInfoRepository.get(199_999L));
+    assertNull(movieInfoRepository.get(199_998L));
+  }
+
+  private void lookUpAll() {
+    for (long movieInfoId = 0; movieInfoId < 10_000; movieInfoId++) {
+      movieInfoRepository.get(movieInfoId);
+    }
+  }
+
+  private static List<Long> ids(List<MovieInfo> movieInfos) {
+    return movieInfos.stream().map(MovieInfo::getMovieInfoId).toList();
+  }
+
+  private static MovieInfo movieInfo(long movieInfoId, String name, int year, String... cast) {
+    return new MovieInfo(movieInfoId, name, year, List.of(cast), LocalDate.of(year, 1, 1));
+  }
+}
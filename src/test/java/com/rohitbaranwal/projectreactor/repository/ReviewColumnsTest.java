@@ -0,0 +1,71 @@
+package com.rohitbaranwal.projectreactor.repository;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+class ReviewColumnsTest {
+
+  private ReviewColumns reviewColumns = new ReviewColumns(16);
+
+  @Test
+  void reviews() {
+    reviewColumns.add(new Review(1L, 100L, "Awesome Movie", 8.9));
+    reviewColumns.add(new Review(2L, 101L, "Good Movie", 7.0));
+    reviewColumns.add(new Review(3L, 100L, null, null));
+    reviewColumns.add(new Review(null, 100L, "Ünïcödé 🎬", 9.5));
+
+    //views compare equal to the reviews they were built from
+    StepVerifier.create(reviewColumns.reviews(100L))
+        .expectNext(new Review(1L, 100L, "Awesome Movie", 8.9))
+        .expectNext(new Review(3L, 100L, null, null))
+        .expectNext(new Review(null, 100L, "Ünïcödé 🎬", 9.5))
+        .verifyComplete();
+    assertEquals(1, reviewColumns.reviewCount(101L));
+    assertEquals(3, reviewColumns.reviewList(100L).size());
+    StepVerifier.create(reviewColumns.reviews(999L))
+        .verifyComplete();
+  }
+
+  @Test
+  void ratings() {
+    reviewColumns.add(new Review(1L, 100L, "Awesome Movie", 8.0));
+    reviewColumns.add(new Review(2L, 100L, "No rating", null));
+    reviewColumns.add(new Review(3L, 100L, "Good Movie", 6.0));
+
+    assertArrayEquals(new double[]{8.0, 6.0}, reviewColumns.ratings(100L).toArray());
+  }
+
+  @Test
+  void growth() {
+    IntStream.range(0, 10_000).forEach(i ->
+        reviewColumns.add(new Review((long) i, (long) (i % 10), "Review comment " + i, 5.0)));
+
+    //views taken before a later growth keep reading their own arrays
+    var early = reviewColumns.reviewList(3L);
+    IntStream.range(10_000, 20_000).forEach(i ->
+        reviewColumns.add(new Review((long) i, (long) (i % 10), "Review comment " + i, 5.0)));
+
+    assertEquals(20_000, reviewColumns.size());
+    assertEquals(1_000, early.size());
+    assertEquals("Review comment 9993", early.get(999).getComment());
+    StepVerifier.create(reviewColumns.reviews(3L))
+        .expectNextCount(1_999)
+        .assertNext(review -> assertEquals(19_993L, review.getReviewId()))
+        .verifyComplete();
+  }
+
+  @Test
+  void view_readOnly() {
+    reviewColumns.add(new Review(1L, 100L, "Awesome Movie", 8.9));
+
+    var view = reviewColumns.reviewList(100L).get(0);
+
+    assertThrows(UnsupportedOperationException.class, () -> view.setRating(1.0));
+  }
+}
@@ -0,0 +1,80 @@
+package com.rohitbaranwal.projectreactor.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rohitbaranwal.projectreactor.config.RetryBudgetSettings;
+import com.rohitbaranwal.projectreactor.exception.DeadlineExceededException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class DeadlineTest {
+
+  @Test
+  void withDeadline_noDeadline() {
+    //bound without a Deadline in the Context does nothing
+    StepVerifier.create(Deadline.bound(Flux.just("A", "B", "C")))
+        .expectNext("A", "B", "C")
+        .verifyComplete();
+  }
+
+  @Test
+  void withDeadline_flux_cancelled() {
+    var cancelled = new AtomicBoolean();
+    var slowFlux = Flux.just("A", "B", "C")
+        .delayElements(Duration.ofMillis(100))
+        .doOnCancel(() -> cancelled.set(true));
+
+    //each element arrives well within 250ms, but the whole flux does not
+    StepVerifier.create(Deadline.withDeadline(Deadline.bound(slowFlux), Duration.ofMillis(250)))
+        .expectNext("A", "B")
+        .expectError(DeadlineExceededException.class)
+        .verify();
+
+    assertTrue(cancelled.get());
+  }
+
+  @Test
+  void withDeadline_mono() {
+    var slowMono = Mono.just("A").delayElement(Duration.ofMillis(500));
+
+    StepVerifier.create(Deadline.withDeadline(slowMono, Duration.ofMillis(100)))
+        .expectError(DeadlineExceededException.class)
+        .verify(Duration.ofMillis(400));
+  }
+
+  @Test
+  void withDeadline_earlierDeadlineKept() {
+    var slowMono = Mono.just("A").delayElement(Duration.ofMillis(300));
+
+    //inner entry point asks for 1 second, the outer 100ms deadline still applies
+    var inner = Deadline.withDeadline(slowMono, Duration.ofSeconds(1));
+
+    StepVerifier.create(Deadline.withDeadline(inner, Duration.ofMillis(100)))
+        .expectError(DeadlineExceededException.class)
+        .verify(Duration.ofMillis(250));
+  }
+
+  @Test
+  void budgetedRetry_stopsAtDeadline() {
+    var attempts = new AtomicInteger();
+    var failingCall = Mono.defer(() -> {
+      attempts.incrementAndGet();
+      return Mono.error(new IllegalStateException("Exception occured in Review Service"));
+    });
+    var retry = BudgetedRetry.backoff(new RetryBudget(RetryBudgetSettings.defaults()), 3,
+        Duration.ofMillis(200));
+
+    //first backoff is at least 200ms, more than the deadline leaves, so there is no retry
+    StepVerifier.create(Deadline.withDeadline(failingCall.retryWhen(retry), Duration.ofMillis(150)))
+        .expectError(IllegalStateException.class)
+        .verify();
+
+    assertEquals(1, attempts.get());
+  }
+}
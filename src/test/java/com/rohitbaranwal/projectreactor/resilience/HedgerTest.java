@@ -0,0 +1,115 @@
+package com.rohitbaranwal.projectreactor.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rohitbaranwal.projectreactor.config.HedgeSettings;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+class HedgerTest {
+
+  private AtomicInteger attempts = new AtomicInteger();
+
+  //first attempt is slow, every later attempt answers straight away
+  private Flux<String> slowThenFast() {
+    if (attempts.incrementAndGet() == 1) {
+      return Flux.just("slow").delayElements(Duration.ofMillis(1000));
+    }
+    return Flux.just("fast");
+  }
+
+  @Test
+  void hedge_hedgeWins() {
+    var hedger = new Hedger(HedgeSettings.builder()
+        .hedgeDelay(Duration.ofMillis(50))
+        .maxHedgeRatio(1.0)
+        .build());
+
+    StepVerifier.create(hedger.hedge(this::slowThenFast))
+        .expectNext("fast")
+        .expectComplete()
+        .verify(Duration.ofMillis(500));
+
+    assertEquals(2, attempts.get());
+    assertEquals(1, hedger.hedgesSent());
+    assertEquals(1, hedger.hedgesWon());
+  }
+
+  @Test
+  void hedge_primaryAnswersInTime() {
+    var hedger = new Hedger(HedgeSettings.builder()
+        .hedgeDelay(Duration.ofMillis(200))
+        .maxHedgeRatio(1.0)
+        .build());
+
+    StepVerifier.create(hedger.hedge(() -> {
+          attempts.incrementAndGet();
+          return Flux.just("fast");
+        }))
+        .expectNext("fast")
+        .verifyComplete();
+
+    //the hedge timer is cancelled, no second attempt
+    assertEquals(1, attempts.get());
+    assertEquals(0, hedger.hedgesSent());
+  }
+
+  @Test
+  void hedge_capped() {
+    var hedger = new Hedger(HedgeSettings.builder()
+        .hedgeDelay(Duration.ofMillis(50))
+        .maxHedgeRatio(0)
+        .build());
+
+    StepVerifier.create(hedger.hedge(this::slowThenFast))
+        .expectNext("slow")
+        .verifyComplete();
+
+    assertEquals(1, attempts.get());
+    assertEquals(0, hedger.hedgesSent());
+  }
+
+  @Test
+  void hedgeDelay_percentile() {
+    var hedger = new Hedger(HedgeSettings.builder()
+        .hedgeDelay(Duration.ofMillis(50))
+        .percentile(0.9)
+        .minHedgeDelay(Duration.ZERO)
+        .build());
+
+    //no samples yet, fixed delay
+    assertEquals(Duration.ofMillis(50), hedger.hedgeDelay());
+
+    Flux.range(0, 100)
+        .concatMap(i -> hedger.hedge(() -> Flux.just(i)))
+        .blockLast();
+
+    //fast calls bring the delay far below the fixed 50ms
+    assertTrue(hedger.hedgeDelay().compareTo(Duration.ofMillis(50)) < 0);
+  }
+
+  @Test
+  void hedgeDelay_percentileCountsCancelledPrimary() {
+    var hedger = new Hedger(HedgeSettings.builder()
+        .hedgeDelay(Duration.ofMillis(20))
+        .maxHedgeRatio(1.0)
+        .percentile(0.5)
+        .minHedgeDelay(Duration.ZERO)
+        .build());
+
+    //every primary is slow and loses to its hedge
+    Flux.range(0, 100)
+        .concatMap(i -> hedger.hedge(() -> attempts.incrementAndGet() % 2 == 1
+            ? Flux.just(i).delayElements(Duration.ofMillis(1000))
+            : Flux.just(i)))
+        .blockLast();
+
+    assertEquals(100, hedger.hedgesWon());
+    //the cancelled primaries were recorded as taking at least the fixed delay
+    assertTrue(hedger.hedgeDelay().compareTo(Duration.ofMillis(20)) > 0);
+  }
+}
@@ -0,0 +1,97 @@
+package com.rohitbaranwal.projectreactor.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+import com.rohitbaranwal.projectreactor.config.CircuitBreakerSettings;
+import com.rohitbaranwal.projectreactor.exception.NetworkException;
+import com.rohitbaranwal.projectreactor.service.ReviewService;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.test.StepVerifier;
+
+@ExtendWith(MockitoExtension.class)
+class ResilientReviewServiceTest {
+
+  @Mock
+  ReviewService reviewService;
+
+  private CircuitBreakerSettings settings(boolean fallbackToEmpty) {
+    return CircuitBreakerSettings.builder()
+        .slidingWindowSize(4)
+        .minimumNumberOfCalls(4)
+        .waitDurationInOpenState(Duration.ofMillis(200))
+        .permittedCallsInHalfOpenState(1)
+        .fallbackToEmpty(fallbackToEmpty)
+        .build();
+  }
+
+  private void failFourTimes(ResilientReviewService resilientReviewService) {
+    for (int i = 0; i < 4; i++) {
+      StepVerifier.create(resilientReviewService.retrieveReviewsFlux(100L))
+          .expectError(NetworkException.class)
+          .verify();
+    }
+  }
+
+  @Test
+  void retrieveReviewsFlux_open_fallback() {
+    Mockito.when(reviewService.retrieveReviewsFlux(anyLong()))
+        .thenThrow(new NetworkException("Exception occured in Review Service"));
+
+    var resilientReviewService = new ResilientReviewService(reviewService, settings(true));
+
+    failFourTimes(resilientReviewService);
+    assertEquals(CircuitBreaker.State.OPEN, resilientReviewService.getState());
+
+    //breaker is open, empty review list and ReviewService is not called again
+    StepVerifier.create(resilientReviewService.retrieveReviewsFlux(100L))
+        .verifyComplete();
+    Mockito.verify(reviewService, Mockito.times(4)).retrieveReviewsFlux(anyLong());
+  }
+
+  @Test
+  void retrieveReviewsFlux_open_failFast() {
+    Mockito.when(reviewService.retrieveReviewsFlux(anyLong()))
+        .thenThrow(new NetworkException("Exception occured in Review Service"));
+
+    var resilientReviewService = new ResilientReviewService(reviewService, settings(false));
+
+    failFourTimes(resilientReviewService);
+
+    StepVerifier.create(resilientReviewService.retrieveReviewsFlux(100L))
+        .expectError(CallNotPermittedException.class)
+        .verify();
+  }
+
+  @Test
+  void stateTransitions() {
+    Mockito.when(reviewService.retrieveReviewsFlux(anyLong()))
+        .thenThrow(new NetworkException("Exception occured in Review Service"))
+        .thenThrow(new NetworkException("Exception occured in Review Service"))
+        .thenThrow(new NetworkException("Exception occured in Review Service"))
+        .thenThrow(new NetworkException("Exception occured in Review Service"))
+        .thenCallRealMethod();
+
+    var resilientReviewService = new ResilientReviewService(reviewService, settings(true));
+
+    failFourTimes(resilientReviewService);
+
+    //after the open wait the next call is a half-open trial, it succeeds and closes the breaker
+    StepVerifier.create(resilientReviewService.retrieveReviewsFlux(100L)
+            .delaySubscription(Duration.ofMillis(300)))
+        .expectNextCount(2)
+        .verifyComplete();
+
+    assertEquals(CircuitBreaker.State.CLOSED, resilientReviewService.getState());
+    StepVerifier.create(resilientReviewService.stateTransitions().take(1))
+        .expectNext(CircuitBreaker.StateTransition.HALF_OPEN_TO_CLOSED)
+        .verifyComplete();
+  }
+}
@@ -0,0 +1,99 @@
+package com.rohitbaranwal.projectreactor.resilience;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rohitbaranwal.projectreactor.config.RetryBudgetSettings;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class RetryBudgetTest {
+
+  private long nanos = 0;
+
+  private RetryBudget retryBudget = new RetryBudget(RetryBudgetSettings.builder()
+      .retryRatio(0.5)
+      .minRetriesPerSecond(2)
+      .maxTokens(10)
+      .build(), () -> nanos);
+
+  @Test
+  void tryAcquireRetry() {
+    //starts with minRetriesPerSecond tokens
+    assertTrue(retryBudget.tryAcquireRetry());
+    assertTrue(retryBudget.tryAcquireRetry());
+    assertFalse(retryBudget.tryAcquireRetry());
+
+    //two successes at 50% buy one retry
+    retryBudget.recordSuccess();
+    retryBudget.recordSuccess();
+    assertTrue(retryBudget.tryAcquireRetry());
+    assertFalse(retryBudget.tryAcquireRetry());
+
+    //the reserve refills with time
+    nanos += TimeUnit.SECONDS.toNanos(1);
+    assertTrue(retryBudget.tryAcquireRetry());
+
+    assertEquals(4, retryBudget.retriesGranted());
+    assertEquals(2, retryBudget.retriesDenied());
+  }
+
+  @Test
+  void bindTo() {
+    var meterRegistry = new SimpleMeterRegistry();
+    retryBudget.bindTo(meterRegistry);
+
+    retryBudget.tryAcquireRetry();
+    retryBudget.tryAcquireRetry();
+    retryBudget.tryAcquireRetry();
+
+    assertEquals(2, meterRegistry.get("retry.budget.granted").functionCounter().count());
+    assertEquals(1, meterRegistry.get("retry.budget.denied").functionCounter().count());
+    assertEquals(0, meterRegistry.get("retry.budget.tokens").gauge().value());
+  }
+
+  @Test
+  void budgetedRetry_budgetExhausted() {
+    var attempts = new AtomicInteger();
+    var failingCall = Mono.defer(() -> {
+      attempts.incrementAndGet();
+      return Mono.error(new IllegalStateException("Exception occured in Review Service"));
+    });
+
+    var retry = BudgetedRetry.backoff(retryBudget, 5, Duration.ofMillis(10))
+        .maxBackoff(Duration.ofMillis(50));
+
+    //5 attempts allowed but the budget only has 2 tokens, original failure is propagated
+    StepVerifier.create(failingCall.retryWhen(retry))
+        .expectError(IllegalStateException.class)
+        .verify();
+
+    assertEquals(3, attempts.get());
+    assertEquals(1, retryBudget.retriesDenied());
+  }
+
+  @Test
+  void budgetedRetry_filter() {
+    var attempts = new AtomicInteger();
+    var failingCall = Mono.defer(() -> {
+      attempts.incrementAndGet();
+      return Mono.error(new IllegalStateException("Exception occured in Review Service"));
+    });
+
+    var retry = BudgetedRetry.backoff(retryBudget, 3, Duration.ofMillis(10))
+        .filter(e -> e instanceof IllegalArgumentException);
+
+    StepVerifier.create(failingCall.retryWhen(retry))
+        .expectError(IllegalStateException.class)
+        .verify();
+
+    assertEquals(1, attempts.get());
+    assertEquals(0, retryBudget.retriesGranted());
+  }
+}
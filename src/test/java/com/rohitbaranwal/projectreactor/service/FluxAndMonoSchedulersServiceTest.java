@@ -0,0 +1,22 @@
+package com.rohitbaranwal.projectreactor.service;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+class FluxAndMonoSchedulersServiceTest {
+
+  FluxAndMonoSchedulersService fluxAndMonoSchedulersService = new FluxAndMonoSchedulersService();
+
+  @Test
+  void namesFlux_upperCase() {
+    Duration elapsed = StepVerifier.create(fluxAndMonoSchedulersService.namesFlux_upperCase())
+        .expectNext("ALEX", "BEN", "CHLOE", "ADAM", "JILL", "JACK")
+        .verifyComplete();
+
+    //six names with a 1 second delay each, run one after the other this would take 6 seconds
+    assertTrue(elapsed.compareTo(Duration.ofSeconds(3)) < 0);
+  }
+}
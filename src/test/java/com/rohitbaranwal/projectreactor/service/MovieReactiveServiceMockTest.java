@@ -1,17 +1,25 @@
 package com.rohitbaranwal.projectreactor.service;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.isA;
 
+import com.rohitbaranwal.projectreactor.config.CircuitBreakerSettings;
+import com.rohitbaranwal.projectreactor.domain.Review;
 import com.rohitbaranwal.projectreactor.exception.MovieException;
 import com.rohitbaranwal.projectreactor.exception.NetworkException;
 import com.rohitbaranwal.projectreactor.exception.ServiceException;
+import com.rohitbaranwal.projectreactor.resilience.Deadline;
+import java.time.Duration;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
 @ExtendWith(MockitoExtension.class) //from JUNIT5
@@ -20,8 +28,9 @@ public class MovieReactiveServiceMockTest {
   @InjectMocks
   MovieReactiveService movieReactiveService;
 
-  @Mock
-  MovieInfoService movieInfoService;
+  //a spy, the real methods read the movies from the repository of a real instance
+  @Spy
+  MovieInfoService movieInfoService = new MovieInfoService();
 
   @Mock
   ReviewService reviewService;
@@ -178,4 +187,58 @@ public class MovieReactiveServiceMockTest {
 
     Mockito.verify(reviewService, Mockito.times(9)).retrieveReviewsFlux(isA(Long.class));
   }
+
+  @Test
+  void getAllMovies_batched() {
+
+    Mockito.when(movieInfoService.retrieveMoviesFlux())
+        .thenCallRealMethod();
+
+    Mockito.when(reviewService.retrieveReviewsFlux(anyCollection()))
+        .thenCallRealMethod();
+
+    var moviesFlux = movieReactiveService.getAllMovies_batched();
+
+    StepVerifier.create(moviesFlux)
+        .expectNextCount(3)
+        .verifyComplete();
+
+    //all three movies fit in one batch, so ReviewService is called once instead of once per movie
+    Mockito.verify(reviewService, Mockito.times(1)).retrieveReviewsFlux(anyCollection());
+    Mockito.verify(reviewService, Mockito.never()).retrieveReviewsFlux(anyLong());
+  }
+
+  @Test
+  void setCircuitBreakerSettings() {
+    movieReactiveService.setCircuitBreakerSettings(CircuitBreakerSettings.builder()
+        .failureRateThreshold(25)
+        .maxConcurrentCalls(4)
+        .build());
+
+    var resilientReviewService = movieReactiveService.getResilientReviewService();
+    assertEquals(25, resilientReviewService.getCircuitBreaker().getCircuitBreakerConfig()
+        .getFailureRateThreshold());
+    assertEquals(4, resilientReviewService.getBulkhead().getBulkheadConfig()
+        .getMaxConcurrentCalls());
+  }
+
+  @Test
+  void getAllMovies_1_circuitBreaker_deadline() {
+
+    Mockito.when(movieInfoService.retrieveMoviesFlux())
+        .thenCallRealMethod();
+
+    //each review lookup takes a second, far past the deadline
+    Mockito.when(reviewService.retrieveReviewsFlux(anyLong()))
+        .thenReturn(Flux.just(new Review(1L, 100L, "Awesome Movie", 8.9))
+            .delayElements(Duration.ofSeconds(1)));
+
+    var moviesFlux = Deadline.withDeadline(movieReactiveService.getAllMovies_1_circuitBreaker(),
+        Duration.ofMillis(200));
+
+    //the review calls behind the breaker are cancelled at the deadline, not after a second
+    StepVerifier.create(moviesFlux)
+        .expectError(ServiceException.class)
+        .verify(Duration.ofMillis(800));
+  }
 }
@@ -2,7 +2,30 @@ package com.rohitbaranwal.projectreactor.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import com.rohitbaranwal.projectreactor.catalog.SyntheticCatalog;
+import com.rohitbaranwal.projectreactor.changes.MovieChangeStream;
+import com.rohitbaranwal.projectreactor.config.CatalogSettings;
+import com.rohitbaranwal.projectreactor.config.EnrichmentSettings;
+import com.rohitbaranwal.projectreactor.config.PaginationSettings;
+import com.rohitbaranwal.projectreactor.config.ReviewBatchSettings;
+import com.rohitbaranwal.projectreactor.config.ScatterGatherSettings;
+import com.rohitbaranwal.projectreactor.domain.MovieInfo;
+import com.rohitbaranwal.projectreactor.domain.MovieInfoPage;
+import com.rohitbaranwal.projectreactor.domain.MoviePart;
+import com.rohitbaranwal.projectreactor.domain.Revenue;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import com.rohitbaranwal.projectreactor.exception.MovieException;
+import com.rohitbaranwal.projectreactor.latency.SimulatedLatency;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 class MovieReactiveServiceTest {
@@ -39,9 +62,36 @@ class MovieReactiveServiceTest {
         .verifyComplete();
   }
 
+  @Test
+  void getAllMovies_batched() {
+    var batchSettings = ReviewBatchSettings.builder()
+        .batchSize(2)
+        .maxWait(Duration.ofMillis(50))
+        .build();
+
+    var movieFlux = movieReactiveService.getAllMovies_batched(batchSettings);
+
+    StepVerifier.create(movieFlux)
+        .assertNext(movie -> {
+          assertEquals("Batman Begins", movie.getMovieInfo().getName());
+          assertEquals(2, movie.getReviewList().size());
+          //reviews are routed back to the movie they belong to
+          assertEquals(100L, movie.getReviewList().get(0).getMovieInfoId());
+        })
+        .assertNext(movie -> {
+          assertEquals("The Dark Knight", movie.getMovieInfo().getName());
+          assertEquals(101L, movie.getReviewList().get(0).getMovieInfoId());
+        })
+        .assertNext(movie -> {
+          assertEquals("Dark Knight Rises", movie.getMovieInfo().getName());
+          assertEquals(102L, movie.getReviewList().get(0).getMovieInfoId());
+        })
+        .verifyComplete();
+  }
+
   @Test
   public void getMovieById() {
-    Long movieId = 3L;
+    Long movieId = 100L;
     var movieMono = movieReactiveService.getMovieById(movieId);
 
     StepVerifier.create(movieMono)
@@ -54,4 +104,254 @@ class MovieReactiveServiceTest {
         })
         .verifyComplete();
   }
-}
\ No newline at end of file
+
+  @Test
+  void getMovieByIdWithRevenue() {
+    long movieId = 100L;
+    var movieMono = movieReactiveService.getMovieByIdWithRevenue(movieId);
+
+    StepVerifier.create(movieMono)
+        .assertNext(movie -> {
+          assertEquals(2, movie.getReviewList().size());
+          assertNotNull(movie.getRevenue());
+          assertEquals(movieId, movie.getRevenue().getMovieInfoId());
+        })
+        .verifyComplete();
+  }
+
+  @Test
+  void getAllMoviesWithRevenue() {
+    var movieFlux = movieReactiveService.getAllMoviesWithRevenue();
+
+    //every getRevenue call takes 1 second, running them on the revenue scheduler
+    //means three movies take about a second instead of three
+    StepVerifier.create(movieFlux)
+        .recordWith(ArrayList::new)
+        .expectNextCount(3)
+        .consumeRecordedWith(movies -> movies.forEach(movie -> {
+          assertEquals(2, movie.getReviewList().size());
+          assertNotNull(movie.getRevenue());
+        }))
+        .expectComplete()
+        .verify(Duration.ofMillis(2500));
+  }
+
+  @Test
+  void getMovieById_deadline() {
+    var movieMono = movieReactiveService.getMovieById(100L, Duration.ofSeconds(1));
+
+    StepVerifier.create(movieMono)
+        .assertNext(movie -> assertEquals(2, movie.getReviewList().size()))
+        .verifyComplete();
+  }
+
+  @Test
+  void getAllMovies_syntheticCatalog() {
+    var catalog = new SyntheticCatalog(CatalogSettings.builder().movieCount(500).build());
+    var syntheticMovieReactiveService = new MovieReactiveService(
+        new SyntheticMovieInfoService(catalog), new SyntheticReviewService(catalog));
+
+    StepVerifier.create(syntheticMovieReactiveService.getAllMovies())
+        .recordWith(ArrayList::new)
+        .expectNextCount(500)
+        .consumeRecordedWith(movies -> movies.forEach(movie -> assertEquals(
+            catalog.reviewCount(movie.getMovieInfo().getMovieInfoId()),
+            movie.getReviewList().size())))
+        .verifyComplete();
+  }
+
+  @Test
+  void getMovieById_summary() {
+    var movieMono = movieReactiveService.getMovieById_summary(100L);
+
+    StepVerifier.create(movieMono)
+        .assertNext(movie -> {
+          assertNull(movie.getReviewList());
+          var ratingSummary = movie.getRatingSummary();
+          assertEquals(2, ratingSummary.getCount());
+          assertEquals(8.95, ratingSummary.getMean(), 1e-9);
+          assertEquals(8.9, ratingSummary.getMin());
+          assertEquals(9.0, ratingSummary.getMax());
+          assertEquals(2, ratingSummary.getHistogram()[8] + ratingSummary.getHistogram()[9]);
+        })
+        .verifyComplete();
+  }
+
+  @Test
+  void getAllMovies_summary_syntheticCatalog() {
+    var catalog = new SyntheticCatalog(CatalogSettings.builder().movieCount(200).build());
+    var syntheticMovieReactiveService = new MovieReactiveService(
+        new SyntheticMovieInfoService(catalog), new SyntheticReviewService(catalog));
+
+    StepVerifier.create(syntheticMovieReactiveService.getAllMovies_summary())
+        .recordWith(ArrayList::new)
+        .expectNextCount(200)
+        .consumeRecordedWith(movies -> movies.forEach(movie -> assertEquals(
+            catalog.reviewCount(movie.getMovieInfo().getMovieInfoId()),
+            movie.getRatingSummary().getCount())))
+        .verifyComplete();
+
+    long totalReviews = LongStream.rangeClosed(1, 200)
+        .map(catalog::reviewCount)
+        .sum();
+    StepVerifier.create(syntheticMovieReactiveService.getCatalogRatingSummary())
+        .assertNext(ratingSummary -> assertEquals(totalReviews, ratingSummary.getCount()))
+        .verifyComplete();
+  }
+
+  @Test
+  void getAllMovies_paged() {
+    var paginationSettings = PaginationSettings.builder().pageSize(2).build();
+
+    StepVerifier.create(movieReactiveService.getAllMovies_paged(0, paginationSettings))
+        .assertNext(page -> {
+          assertEquals(2, page.getMovies().size());
+          assertEquals(2, page.getMovies().get(0).getReviewList().size());
+          assertFalse(page.isLast());
+        })
+        .assertNext(page -> {
+          assertEquals("Dark Knight Rises", page.getMovies().get(0).getMovieInfo().getName());
+          assertTrue(page.isLast());
+        })
+        .verifyComplete();
+  }
+
+  @Test
+  void getAllMovies_paged_onDemandAndResumable() {
+    var catalog = new SyntheticCatalog(CatalogSettings.builder().movieCount(250).build());
+    var pagesRead = new AtomicInteger();
+    var latency = SimulatedLatency.fixed(Duration.ofMillis(10));
+    var countingMovieInfoService = new SyntheticMovieInfoService(catalog, latency) {
+      @Override
+      public Mono<MovieInfoPage> retrieveMoviesPage(long cursor, int pageSize) {
+        return super.retrieveMoviesPage(cursor, pageSize)
+            .doOnNext(page -> pagesRead.incrementAndGet());
+      }
+    };
+    var syntheticMovieReactiveService = new MovieReactiveService(
+        countingMovieInfoService, new SyntheticReviewService(catalog));
+    var paginationSettings = PaginationSettings.builder().pageSize(100).build();
+
+    var resumeFrom = new AtomicLong();
+    StepVerifier.create(syntheticMovieReactiveService.getAllMovies_paged(0, paginationSettings), 0)
+        .then(() -> assertEquals(0, pagesRead.get()))
+        .thenRequest(1)
+        .assertNext(page -> {
+          assertEquals(100, page.getMovies().size());
+          resumeFrom.set(page.getNextCursor());
+        })
+        //no page is read ahead while the subscriber does not ask for more
+        .expectNoEvent(Duration.ofMillis(100))
+        .then(() -> assertEquals(1, pagesRead.get()))
+        //the subscriber goes away after one page
+        .thenCancel()
+        .verify();
+
+    StepVerifier.create(
+            syntheticMovieReactiveService.getAllMovies_paged(resumeFrom.get(), paginationSettings))
+        .assertNext(page -> assertEquals(101L,
+            page.getMovies().get(0).getMovieInfo().getMovieInfoId()))
+        .assertNext(page -> {
+          assertEquals(50, page.getMovies().size());
+          assertTrue(page.isLast());
+        })
+        .verifyComplete();
+    assertEquals(3, pagesRead.get());
+  }
+
+  @Test
+  void getAllMovies_changes() {
+    var movieChanges = movieReactiveService.getMovieChanges();
+
+    StepVerifier.create(movieReactiveService.getAllMovies_changes())
+        .expectNextCount(3)
+        .then(() -> movieChanges.reviewAdded(new Review(3L, 101L, "Legendary", 9.5)))
+        .assertNext(movie -> {
+          assertEquals(101L, movie.getMovieInfo().getMovieInfoId());
+          assertEquals(3, movie.getReviewList().size());
+        })
+        .then(() -> movieChanges.revenueUpdated(new Revenue(101L, 185e6, 1e9)))
+        .assertNext(movie -> assertEquals(1e9, movie.getRevenue().getBoxOffice()))
+        .thenCancel()
+        .verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void getAllMovies_changes_repositoryWrites() {
+    var movieChanges = new MovieChangeStream();
+    movieReactiveService.setMovieChangeStream(movieChanges);
+    var movieInfoRepository = movieInfoService.getMovieInfoRepository();
+    movieInfoRepository.setMovieChangeStream(movieChanges);
+
+    StepVerifier.create(movieReactiveService.getAllMovies_changes())
+        .expectNextCount(3)
+        .then(() -> movieInfoRepository.save(new MovieInfo(101L, "The Dark Knight (2008)", 2008,
+            List.of("Christian Bale"), null)))
+        .assertNext(movie -> {
+          assertEquals("The Dark Knight (2008)", movie.getMovieInfo().getName());
+          //the reviews loaded with the snapshot are kept
+          assertEquals(2, movie.getReviewList().size());
+        })
+        .thenCancel()
+        .verify(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void getAllMovies_enriched() {
+    var catalog = new SyntheticCatalog(CatalogSettings.builder().movieCount(300).build());
+    var syntheticMovieReactiveService = new MovieReactiveService(
+        new SyntheticMovieInfoService(catalog), new SyntheticReviewService(catalog));
+
+    var ordered = syntheticMovieReactiveService.getAllMovies_enriched(
+        EnrichmentSettings.builder().rails(4).ordered(true).build());
+    StepVerifier.create(ordered.map(movie -> {
+          assertNotNull(movie.getReviewInsights());
+          return movie.getMovieInfo().getMovieInfoId();
+        }))
+        .expectNextSequence(LongStream.rangeClosed(1, 300).boxed().toList())
+        .verifyComplete();
+
+    var unordered = syntheticMovieReactiveService.getAllMovies_enriched(
+        EnrichmentSettings.builder().rails(4).ordered(false).build());
+    StepVerifier.create(unordered.map(movie -> movie.getMovieInfo().getMovieInfoId())
+            .collect(Collectors.toSet()))
+        .assertNext(movieInfoIds -> assertEquals(300, movieInfoIds.size()))
+        .verifyComplete();
+  }
+
+  @Test
+  void getMovieById_scatterGather_optionalPartsDoNotWait() {
+    //revenue takes a second, only MovieInfo is required
+    StepVerifier.create(movieReactiveService.getMovieById_scatterGather(100L))
+        .assertNext(movie -> {
+          assertEquals("Batman Begins", movie.getMovieInfo().getName());
+          assertEquals(2, movie.getReviewList().size());
+          assertNull(movie.getRevenue());
+          assertEquals(Set.of(MoviePart.REVENUE), movie.getMissingParts());
+        })
+        .expectComplete()
+        .verify(Duration.ofMillis(500));
+  }
+
+  @Test
+  void getMovieById_scatterGather_requiredRevenue() {
+    var scatterGatherSettings = ScatterGatherSettings.builder()
+        .requiredParts(Set.of(MoviePart.MOVIE_INFO, MoviePart.REVENUE))
+        .revenueTimeout(Duration.ofSeconds(3))
+        .build();
+
+    StepVerifier.create(movieReactiveService.getMovieById_scatterGather(100L,
+            scatterGatherSettings))
+        .assertNext(movie -> {
+          assertEquals(100L, movie.getRevenue().getMovieInfoId());
+          assertTrue(movie.getMissingParts().isEmpty());
+        })
+        .verifyComplete();
+
+    scatterGatherSettings.setRevenueTimeout(Duration.ofMillis(100));
+    StepVerifier.create(movieReactiveService.getMovieById_scatterGather(100L,
+            scatterGatherSettings))
+        .expectError(MovieException.class)
+        .verify(Duration.ofMillis(500));
+  }
+}
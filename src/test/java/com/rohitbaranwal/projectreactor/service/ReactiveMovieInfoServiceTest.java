@@ -0,0 +1,37 @@
+package com.rohitbaranwal.projectreactor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.rohitbaranwal.projectreactor.config.BlockingExecutionMode;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import reactor.test.StepVerifier;
+
+class ReactiveMovieInfoServiceTest {
+
+  private MovieInfoService movieInfoService = new MovieInfoService();
+
+  @ParameterizedTest
+  @EnumSource(BlockingExecutionMode.class)
+  void movieListFlux(BlockingExecutionMode executionMode) {
+    var reactiveMovieInfoService = new ReactiveMovieInfoService(movieInfoService, executionMode);
+
+    StepVerifier.create(reactiveMovieInfoService.movieListFlux())
+        .expectNextCount(3)
+        .verifyComplete();
+
+    reactiveMovieInfoService.dispose();
+  }
+
+  @ParameterizedTest
+  @EnumSource(BlockingExecutionMode.class)
+  void retrieveMovieMonoUsingId(BlockingExecutionMode executionMode) {
+    var reactiveMovieInfoService = new ReactiveMovieInfoService(movieInfoService, executionMode);
+
+    StepVerifier.create(reactiveMovieInfoService.retrieveMovieMonoUsingId(100L))
+        .assertNext(movieInfo -> assertEquals(100L, movieInfo.getMovieInfoId()))
+        .verifyComplete();
+
+    reactiveMovieInfoService.dispose();
+  }
+}
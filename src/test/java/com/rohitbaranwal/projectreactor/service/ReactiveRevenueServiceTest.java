@@ -0,0 +1,43 @@
+package com.rohitbaranwal.projectreactor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import com.rohitbaranwal.projectreactor.latency.SimulatedLatency;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+class ReactiveRevenueServiceTest {
+
+  @Test
+  void sharedIsOneInstance() {
+    var movieReactiveService = new MovieReactiveService(new MovieInfoService(), new ReviewService());
+
+    assertSame(ReactiveRevenueService.shared(), ReactiveRevenueService.shared());
+    StepVerifier.create(movieReactiveService.getMovieByIdWithRevenue(100L))
+        .assertNext(movie -> assertEquals(100L, movie.getRevenue().getMovieInfoId()))
+        .verifyComplete();
+  }
+
+  @Test
+  void disposeLeavesSharedRunning() {
+    ReactiveRevenueService.shared().dispose();
+
+    StepVerifier.create(ReactiveRevenueService.shared().retrieveRevenueMono(100L))
+        .assertNext(revenue -> assertEquals(100L, revenue.getMovieInfoId()))
+        .verifyComplete();
+  }
+
+  @Test
+  void retrieveRevenueMono() {
+    var reactiveRevenueService = new ReactiveRevenueService(
+        new RevenueService(SimulatedLatency.fixed(Duration.ZERO)));
+
+    StepVerifier.create(reactiveRevenueService.retrieveRevenueMono(200L))
+        .assertNext(revenue -> assertEquals(200L, revenue.getMovieInfoId()))
+        .verifyComplete();
+
+    reactiveRevenueService.dispose();
+  }
+}
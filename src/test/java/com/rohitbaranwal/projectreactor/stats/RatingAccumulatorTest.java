@@ -0,0 +1,96 @@
+package com.rohitbaranwal.projectreactor.stats;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.rohitbaranwal.projectreactor.domain.RatingSummary;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class RatingAccumulatorTest {
+
+  @Test
+  void summary() {
+    var accumulator = new RatingAccumulator();
+    for (double rating : new double[] {2.0, 4.0, 4.0, 4.0, 5.0, 5.0, 7.0, 9.0}) {
+      accumulator.add(rating);
+    }
+    accumulator.add(new Review(1L, 1L, "no rating", null));
+    accumulator.add(Double.NaN);
+
+    RatingSummary summary = accumulator.summary();
+    assertEquals(8, summary.getCount());
+    assertEquals(5.0, summary.getMean(), 1e-12);
+    assertEquals(4.0, summary.getVariance(), 1e-12);
+    assertEquals(2.0, summary.getStandardDeviation(), 1e-12);
+    assertEquals(2.0, summary.getMin());
+    assertEquals(9.0, summary.getMax());
+    assertArrayEquals(new long[] {0, 0, 1, 0, 3, 2, 0, 1, 0, 1, 0}, summary.getHistogram());
+  }
+
+  @Test
+  void summary_empty() {
+    assertEquals(RatingSummary.empty(), new RatingAccumulator().summary());
+  }
+
+  @Test
+  void combine_matchesSinglePass() {
+    var random = new SplittableRandom(7);
+    var all = new RatingAccumulator();
+    var left = new RatingAccumulator();
+    var right = new RatingAccumulator();
+    for (int i = 0; i < 10_000; i++) {
+      double rating = 1 + random.nextInt(91) / 10.0;
+      all.add(rating);
+      (i % 3 == 0 ? left : right).add(rating);
+    }
+
+    RatingSummary expected = all.summary();
+    RatingSummary combined = left.combine(right).summary();
+    assertEquals(expected.getCount(), combined.getCount());
+    assertEquals(expected.getMean(), combined.getMean(), 1e-9);
+    assertEquals(expected.getVariance(), combined.getVariance(), 1e-9);
+    assertEquals(expected.getMin(), combined.getMin());
+    assertEquals(expected.getMax(), combined.getMax());
+    assertArrayEquals(expected.getHistogram(), combined.getHistogram());
+  }
+
+  @Test
+  void striped_concurrentWriters() throws InterruptedException {
+    int threads = 8;
+    int perThread = 50_000;
+    var striped = new StripedRatingAccumulator(4);
+    var start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    for (int t = 0; t < threads; t++) {
+      double rating = t + 1;
+      executor.execute(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        for (int i = 0; i < perThread; i++) {
+          striped.add(rating);
+        }
+      });
+    }
+    start.countDown();
+    executor.shutdown();
+    assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+    RatingSummary summary = striped.summary();
+    assertEquals(4, striped.stripeCount());
+    assertEquals((long) threads * perThread, summary.getCount());
+    assertEquals(4.5, summary.getMean(), 1e-9);
+    assertEquals(1.0, summary.getMin());
+    assertEquals(8.0, summary.getMax());
+    for (int bucket = 1; bucket <= threads; bucket++) {
+      assertEquals(perThread, summary.getHistogram()[bucket]);
+    }
+  }
+}
@@ -0,0 +1,206 @@
+package com.rohitbaranwal.projectreactor.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rohitbaranwal.projectreactor.config.ReviewStoreSettings;
+import com.rohitbaranwal.projectreactor.domain.Review;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import reactor.test.StepVerifier;
+
+class MappedReviewStoreTest {
+
+  @TempDir
+  Path directory;
+
+  private ReviewStoreSettings settings(int segmentSize) {
+    return ReviewStoreSettings.builder()
+        .directory(directory)
+        .segmentSize(segmentSize)
+        .build();
+  }
+
+  @Test
+  void reviews() {
+    try (var store = MappedReviewStore.open(settings(1024 * 1024))) {
+      store.append(new Review(1L, 100L, "Awesome Movie", 8.9));
+      store.append(new Review(2L, 101L, "Good Movie", 7.0));
+      store.append(new Review(3L, 100L, null, null));
+
+      StepVerifier.create(store.reviews(100L))
+          .expectNext(new Review(3L, 100L, null, null))
+          .expectNext(new Review(1L, 100L, "Awesome Movie", 8.9))
+          .verifyComplete();
+      assertEquals(2, store.reviewCount(100L));
+      assertEquals(store.reviewList(100L), store.reviews(100L).collectList().block());
+      StepVerifier.create(store.reviews(999L))
+          .verifyComplete();
+    }
+  }
+
+  @Test
+  void reviews_backpressure() {
+    try (var store = MappedReviewStore.open(settings(1024 * 1024))) {
+      LongStream.range(0, 1000).forEach(id -> store.append(new Review(id, 100L, "Review", 5.0)));
+
+      StepVerifier.create(store.reviews(100L), 0)
+          .expectSubscription()
+          .expectNoEvent(Duration.ofMillis(50))
+          .thenRequest(2)
+          .expectNextCount(2)
+          .expectNoEvent(Duration.ofMillis(50))
+          .thenRequest(Long.MAX_VALUE)
+          .expectNextCount(998)
+          .verifyComplete();
+    }
+  }
+
+  @Test
+  void segmentRolling_and_recovery() {
+    try (var store = MappedReviewStore.open(settings(1024))) {
+      LongStream.range(0, 200).forEach(id ->
+          store.append(new Review(id, id % 4, "Review " + id, 5.0)));
+      assertTrue(store.segmentCount() > 1);
+    }
+
+    //the index is rebuilt from the segment files
+    try (var store = MappedReviewStore.open(settings(1024))) {
+      assertEquals(4, store.movieCount());
+      assertEquals(50, store.reviewCount(3L));
+      StepVerifier.create(store.reviews(3L).map(Review::getReviewId))
+          .expectNext(199L, 195L)
+          .expectNextCount(48)
+          .verifyComplete();
+
+      store.append(new Review(200L, 3L, "After restart", 6.0));
+      assertEquals(51, store.reviewCount(3L));
+    }
+  }
+
+  @Test
+  void recovery_tornRecord() throws Exception {
+    try (var store = MappedReviewStore.open(settings(4096))) {
+      store.append(new Review(1L, 100L, "Awesome Movie", 8.9));
+      store.append(new Review(2L, 100L, "Excellent Movie", 9.0));
+    }
+
+    //a crash in the middle of a write, the length made it to disk but the payload did not
+    var segment = directory.resolve("segment-0000000001.log");
+    var end = endOfData(segment);
+    try (var channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+      channel.write(ByteBuffer.allocate(8).putInt(0, 60).putInt(4, 12345), end);
+    }
+
+    try (var store = MappedReviewStore.open(settings(4096))) {
+      assertEquals(2, store.reviewCount(100L));
+      store.append(new Review(3L, 100L, "Good Movie", 7.0));
+    }
+    try (var store = MappedReviewStore.open(settings(4096))) {
+      assertEquals(3, store.reviewCount(100L));
+    }
+  }
+
+  @Test
+  void deleteReviews_and_compact() throws Exception {
+    try (var store = MappedReviewStore.open(settings(1024))) {
+      LongStream.range(0, 100).forEach(id ->
+          store.append(new Review(id, id % 2, "Review " + id, 5.0)));
+      var segmentsBefore = store.segmentCount();
+
+      assertTrue(store.deleteReviews(0L));
+      assertFalse(store.deleteReviews(0L));
+      StepVerifier.create(store.reviews(0L))
+          .verifyComplete();
+
+      var streamedBeforeCompaction = store.reviews(1L);
+      store.compact();
+
+      assertTrue(store.segmentCount() < segmentsBefore);
+      assertEquals(50, store.reviewCount(1L));
+      StepVerifier.create(store.reviews(1L).map(Review::getReviewId))
+          .expectNext(99L)
+          .expectNextCount(49)
+          .verifyComplete();
+      //a flux assembled before compaction still reads the data that was live then
+      StepVerifier.create(streamedBeforeCompaction)
+          .expectNextCount(50)
+          .verifyComplete();
+    }
+
+    try (var files = Files.list(directory)) {
+      assertTrue(files.noneMatch(file -> file.toString().endsWith(".compacting")));
+    }
+    try (var store = MappedReviewStore.open(settings(1024))) {
+      assertEquals(1, store.movieCount());
+      assertEquals(0, store.reviewCount(0L));
+      assertEquals("Review 99", store.reviewList(1L).get(0).getComment());
+    }
+  }
+
+  @Test
+  void compact_cleanupFails() throws Exception {
+    try (var store = MappedReviewStore.open(settings(1024))) {
+      LongStream.range(0, 100).forEach(id ->
+          store.append(new Review(id, id % 2, "Review " + id, 5.0)));
+      store.deleteReviews(0L);
+      store.setFileRemover(file -> {
+        throw new IOException("Could not delete " + file);
+      });
+
+      //the compaction is committed before the old files are removed, so it does not fail
+      store.compact();
+
+      assertEquals(1, store.movieCount());
+      StepVerifier.create(store.reviews(1L))
+          .expectNextCount(50)
+          .verifyComplete();
+      store.append(new Review(100L, 1L, "Review 100", 5.0));
+      assertEquals("Review 100", store.reviewList(1L).get(0).getComment());
+    }
+
+    //open() finishes the cleanup, the old segments would otherwise be read twice
+    try (var store = MappedReviewStore.open(settings(1024))) {
+      assertEquals(1, store.movieCount());
+      assertEquals(51, store.reviewCount(1L));
+      assertEquals(0, store.reviewCount(0L));
+    }
+    try (var files = Files.list(directory)) {
+      assertTrue(files.noneMatch(file -> file.toString().endsWith(".compacting")));
+    }
+  }
+
+  @Test
+  void recovery_unfinishedCompaction() throws Exception {
+    try (var store = MappedReviewStore.open(settings(1024))) {
+      store.append(new Review(1L, 100L, "Awesome Movie", 8.9));
+    }
+    //left behind by a compaction that crashed before writing its marker
+    Files.write(directory.resolve("segment-0000000002.log.compacting"), new byte[1024]);
+
+    try (var store = MappedReviewStore.open(settings(1024))) {
+      assertEquals(1, store.reviewCount(100L));
+      assertEquals(1, store.segmentCount());
+    }
+    assertFalse(Files.exists(directory.resolve("segment-0000000002.log.compacting")));
+  }
+
+  private static int endOfData(Path segment) throws Exception {
+    var bytes = ByteBuffer.wrap(Files.readAllBytes(segment));
+    var offset = 0;
+    int length;
+    while ((length = RecordFormat.validLength(bytes, offset)) > 0) {
+      offset += length;
+    }
+    return offset;
+  }
+}
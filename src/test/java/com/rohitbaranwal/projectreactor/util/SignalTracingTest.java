@@ -0,0 +1,59 @@
+package com.rohitbaranwal.projectreactor.util;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.rohitbaranwal.projectreactor.config.TraceSettings;
+import java.util.Set;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+class SignalTracingTest {
+
+  private final TraceSettings initialSettings = SignalTracing.settings();
+
+  @AfterEach
+  void restore() {
+    SignalTracing.configure(initialSettings);
+  }
+
+  @Test
+  void traceFlux_disabled() {
+    SignalTracing.configure(TraceSettings.builder().enabled(false).build());
+
+    var flux = Flux.just("A", "B", "C");
+
+    //untraced pipelines are returned as they are, no operator is added
+    assertSame(flux, flux.transform(SignalTracing.traceFlux("explore_concat")));
+    assertSame(SignalTracing.traceFlux("a"), SignalTracing.traceFlux("b"));
+  }
+
+  @Test
+  void sampled_perPipeline() {
+    SignalTracing.configure(TraceSettings.builder()
+        .enabled(false)
+        .enabledPipelines(Set.of("getAllMovies"))
+        .build());
+
+    assertTrue(SignalTracing.sampled("getAllMovies"));
+    assertFalse(SignalTracing.sampled("getMovieById"));
+
+    SignalTracing.configure(TraceSettings.builder()
+        .disabledPipelines(Set.of("getAllMovies"))
+        .build());
+
+    assertFalse(SignalTracing.sampled("getAllMovies"));
+    assertTrue(SignalTracing.sampled("getMovieById"));
+  }
+
+  @Test
+  void sampled_sampleRate() {
+    SignalTracing.configure(TraceSettings.builder().sampleRate(0).build());
+
+    for (int i = 0; i < 100; i++) {
+      assertFalse(SignalTracing.sampled("getAllMovies"));
+    }
+  }
+}
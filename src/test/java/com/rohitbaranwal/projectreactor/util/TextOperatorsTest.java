@@ -0,0 +1,83 @@
+package com.rohitbaranwal.projectreactor.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+
+class TextOperatorsTest {
+
+  //"Great 🎬 film" with the clapper board as a surrogate pair
+  private static final String COMMENT = "Great 🎬 film";
+
+  @Test
+  void characters() {
+    StepVerifier.create(TextOperators.characters("ALEX"))
+        .expectNext("A", "L", "E", "X")
+        .verifyComplete();
+
+    StepVerifier.create(TextOperators.characters("a🎬b"))
+        .expectNext("a", "🎬", "b")
+        .verifyComplete();
+
+    StepVerifier.create(TextOperators.characters(""))
+        .verifyComplete();
+  }
+
+  @Test
+  void characters_asciiIsCached() {
+    var first = TextOperators.characterList("ALEX").get(0);
+    var second = TextOperators.characters("ALEX").blockFirst();
+    assertSame(first, second);
+    assertEquals(List.of("A", "L", "E", "X"), TextOperators.characterList("ALEX"));
+  }
+
+  @Test
+  void codePoints() {
+    StepVerifier.create(TextOperators.codePoints("a🎬"))
+        .expectNext((int) 'a', 0x1F3AC)
+        .verifyComplete();
+  }
+
+  @Test
+  void charSlices() {
+    StepVerifier.create(TextOperators.charSlices("a🎬").map(CharSlice::length))
+        .expectNext(1, 2)
+        .verifyComplete();
+  }
+
+  @Test
+  void tokens() {
+    StepVerifier.create(TextOperators.tokens(COMMENT).map(CharSlice::toString))
+        .expectNext("Great", "film")
+        .verifyComplete();
+
+    //letters outside the basic plane are part of a token
+    StepVerifier.create(TextOperators.tokens("x𝐀y, z").map(CharSlice::toString))
+        .expectNext("x𝐀y", "z")
+        .verifyComplete();
+
+    var token = TextOperators.nextToken(COMMENT, 0);
+    assertEquals("Great", token.toString());
+    assertEquals("film", TextOperators.nextToken(COMMENT, token.end()).toString());
+    assertNull(TextOperators.nextToken("--", 0));
+  }
+
+  @Test
+  void charSlice() {
+    var slice = new CharSlice(COMMENT, 0, 5);
+    assertEquals("Great", slice.toString());
+    assertEquals("Great".hashCode(), slice.hashCode());
+    assertEquals(new CharSlice("Great!", 0, 5), slice);
+    assertEquals("eat", slice.subSequence(2, 5).toString());
+    //a sub-slice stays inside the slice even when the source has more characters
+    assertThrows(IndexOutOfBoundsException.class, () -> slice.subSequence(2, 6));
+    assertThrows(IndexOutOfBoundsException.class, () -> slice.subSequence(-1, 2));
+    assertThrows(IndexOutOfBoundsException.class, () -> slice.subSequence(3, 2));
+    assertEquals("🎬".codePointAt(0), new CharSlice(COMMENT, 6, 8).codePointAt(0));
+  }
+}